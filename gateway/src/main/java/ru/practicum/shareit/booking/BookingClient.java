@@ -4,15 +4,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.exceptions.exceptions.IncorrectBookingTimeException;
+import ru.practicum.shareit.user.UserExistenceCache;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,16 +23,20 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ServerTransport transport,
+                         UserExistenceCache userExistenceCache) {
         super(
+                serverUrl + API_PREFIX,
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                userExistenceCache
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size) {
         LocalDateTime time = LocalDateTime.now();
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
@@ -40,22 +47,35 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}&time={time}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Object>> getBookingsByCursor(long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         validate(requestDto);
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> update(long bookingId, long userId, boolean approved) {
+    public Mono<ResponseEntity<Object>> update(long bookingId, long userId, boolean approved) {
         Map<String, Object> params = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
-    public ResponseEntity<Object> getAllByOwner(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> updateAll(List<Long> bookingIds, long userId, boolean approved) {
+        Map<String, Object> params = Map.of("approved", approved);
+        return patch("/batch?approved={approved}", userId, params, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByOwner(long userId, BookingState state, Integer from, Integer size) {
         LocalDateTime time = LocalDateTime.now();
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
@@ -66,6 +86,15 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}&time={time}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Object>> getAllByOwnerByCursor(long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
     private void validate(BookItemRequestDto booking) {
         if (booking.getEnd() == null || booking.getStart() == null) {
             throw new IncorrectBookingTimeException("Необходимо указать время бронирования");
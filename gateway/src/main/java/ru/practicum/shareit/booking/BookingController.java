@@ -7,13 +7,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exceptions.exceptions.IncorrectRequestParamException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -24,47 +28,64 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IncorrectRequestParamException("Unknown state: " + stateParam));
-        log.info("Get bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get bookings with state {}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        if (cursor != null) {
+            return bookingClient.getBookingsByCursor(userId, state, cursor, size);
+        }
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId,
+    public Mono<ResponseEntity<Object>> updateBooking(@PathVariable Long bookingId,
                                     @RequestHeader("X-Sharer-User-Id") Long sharerId,
                                     @RequestParam(name = "approved") boolean approveStatus) {
         log.info("Update booking id={} approve={} by user id={}", bookingId, approveStatus, sharerId);
         return bookingClient.update(bookingId, sharerId, approveStatus);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> updateBookings(@RequestBody @NotEmpty @Size(max = 500) List<@Positive Long> bookingIds,
+                                                 @RequestHeader("X-Sharer-User-Id") Long sharerId,
+                                                 @RequestParam(name = "approved") boolean approveStatus) {
+        log.info("Update bookings ids={} approve={} by user id={}", bookingIds, approveStatus, sharerId);
+        return bookingClient.updateAll(bookingIds, sharerId, approveStatus);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllForOwner(@RequestHeader("X-Sharer-User-Id") long sharerId,
+    public Mono<ResponseEntity<Object>> getAllForOwner(@RequestHeader("X-Sharer-User-Id") long sharerId,
                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                 @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IncorrectRequestParamException("Unknown state: " + stateParam));
-        log.info("Getting all bookings for owner id={} by params state={} from={} size={}",
-                sharerId, state, from, size);
+        log.info("Getting all bookings for owner id={} by params state={} from={} size={} cursor={}",
+                sharerId, state, from, size, cursor);
+        if (cursor != null) {
+            return bookingClient.getAllByOwnerByCursor(sharerId, state, cursor, size);
+        }
         return bookingClient.getAllByOwner(sharerId, state, from, size);
     }
 }
\ No newline at end of file
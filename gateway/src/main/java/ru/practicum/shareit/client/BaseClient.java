@@ -1,101 +1,167 @@
 package ru.practicum.shareit.client;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriTemplateHandler;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.UserExistenceCache;
 
 public class BaseClient {
+    // Content-Length is left out too: it is set again when the body is written
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
     protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
+    private final ServerTransport transport;
+
+    private final UriTemplateHandler uris;
+
+    @Nullable
+    private final UserExistenceCache users;
+
+    public BaseClient(String baseUrl, RestTemplate rest, ServerTransport transport) {
+        this(baseUrl, rest, transport, null);
+    }
+
+    /**
+     * Requests go through {@code transport}; {@code rest} is kept for the streaming calls, which need blocking I/O.
+     * With {@code users} a request from a user known to be missing is rejected before it reaches shareit-server.
+     */
+    public BaseClient(String baseUrl, RestTemplate rest, ServerTransport transport, @Nullable UserExistenceCache users) {
         this.rest = rest;
+        this.transport = transport;
+        this.uris = new DefaultUriBuilderFactory(baseUrl);
+        this.users = users;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
+    /**
+     * Copies the server response body to {@code out} chunk by chunk instead of reading it into memory.
+     */
+    protected void stream(String path, OutputStream out) {
+        rest.execute(uris.expand(path), HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> StreamUtils.copy(response.getBody(), out));
+    }
+
+    /**
+     * Sends {@code body} upstream as it is read. The client's request factory must not buffer request bodies.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, InputStream body, MediaType contentType) {
+        requireNotMissing(userId);
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().putAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            StreamUtils.copy(body, request.getBody());
+        };
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.execute(uris.expand(path), HttpMethod.POST, requestCallback,
+                    rest.responseEntityExtractor(byte[].class));
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return remember(userId, relay(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray()));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return remember(userId, prepareGatewayResponse(shareitServerResponse));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        requireNotMissing(userId);
+        URI uri = uris.expand(path, parameters != null ? parameters : Map.of());
+        return transport.exchange(method, uri, defaultHeaders(userId), body)
+                .map(response -> remember(userId, prepareGatewayResponse(response)));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private void requireNotMissing(@Nullable Long userId) {
+        if (users != null) {
+            users.requireNotMissing(userId);
+        }
+    }
+
+    private ResponseEntity<Object> remember(@Nullable Long userId, ResponseEntity<Object> response) {
+        if (users != null) {
+            users.remember(userId, response);
+        }
+        return response;
+    }
+
+    private static HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -105,17 +171,30 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return relay(response.getStatusCode(), response.getHeaders(), response.getBody());
+    }
+
+    /**
+     * Passes the server response on as raw bytes: the JSON is never parsed in the gateway,
+     * and status and end-to-end headers stay as the server sent them.
+     */
+    private static ResponseEntity<Object> relay(HttpStatus status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        HttpHeaders gatewayHeaders = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    gatewayHeaders.addAll(name, values);
+                }
+            });
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(gatewayHeaders);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Blocking transport: the request is sent on the calling thread and the returned Mono is already completed.
+ */
+public class RestTemplateTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body) {
+        ResponseEntity<byte[]> response;
+        try {
+            response = rest.exchange(uri, method, new HttpEntity<>(body, headers), byte[].class);
+        } catch (HttpStatusCodeException e) {
+            response = ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return Mono.just(response);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Sends one request to shareit-server. Error statuses are returned as responses, not signalled as errors.
+ * The bean is picked by profile: {@link RestTemplateTransport} by default, {@link WebClientTransport} with "reactive".
+ */
+public interface ServerTransport {
+
+    Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Non-blocking transport: no servlet thread waits for shareit-server.
+ */
+public class WebClientTransport implements ServerTransport {
+
+    private final WebClient web;
+
+    public WebClientTransport(WebClient web) {
+        this.web = web;
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        // toEntity keeps 4xx/5xx as responses instead of raising WebClientResponseException
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling on virtual threads when shareit.virtual-threads.enabled=true and the JVM has them.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = VirtualThreadConfig.ENABLED_PROPERTY, havingValue = "true")
+public class VirtualThreadConfig {
+
+    static final String ENABLED_PROPERTY = "shareit.virtual-threads.enabled";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        return protocolHandler -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+            }
+        };
+    }
+
+    static ExecutorService newVirtualThreadExecutor() {
+        // looked up reflectively so the module keeps building for Java 11, needs Java 21+ at runtime
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("{}=true, Tomcat requests run on virtual threads", ENABLED_PROPERTY);
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            // the flag is set explicitly, so a JVM that ignores it is a misconfiguration worth shouting about
+            log.warn("{}=true, but Java {} has no virtual threads (Java 21+ is required): "
+                            + "Tomcat keeps the platform thread pool. Run on Java 21+ or unset the flag",
+                    ENABLED_PROPERTY, System.getProperty("java.version"));
+            return null;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.exceptions.exceptions.IncorrectBookingTimeException;
 import ru.practicum.shareit.exceptions.exceptions.IncorrectRequestParamException;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
 
 
 @RestControllerAdvice
@@ -18,4 +19,12 @@ public class ErrorHandler {
                 e.getMessage()
         );
     }
+
+    @ExceptionHandler({UserNotFoundException.class})
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleNotFoundException(final RuntimeException e) {
+        return new ErrorResponse(
+                e.getMessage()
+        );
+    }
 }
\ No newline at end of file
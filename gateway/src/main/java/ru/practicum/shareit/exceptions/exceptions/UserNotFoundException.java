@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions.exceptions;
+
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(Long userId) {
+        super("Пользователь с id " + userId + " не найден");
+    }
+}
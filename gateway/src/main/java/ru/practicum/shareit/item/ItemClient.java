@@ -3,14 +3,18 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
+import ru.practicum.shareit.user.UserExistenceCache;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -18,43 +22,60 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ServerTransport transport,
+                      UserExistenceCache userExistenceCache) {
         super(
+                serverUrl + API_PREFIX,
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                userExistenceCache
         );
     }
 
-    public ResponseEntity<Object> add(ItemCreationDto itemCreationDto, long userId) {
+    public Mono<ResponseEntity<Object>> add(ItemCreationDto itemCreationDto, long userId) {
         return post("", userId, itemCreationDto);
     }
 
-    public ResponseEntity<Object> update(ItemCreationDto patch, long itemId, long sharerId) {
+    public ResponseEntity<Object> importItems(InputStream items, long userId) {
+        return postStream("/import", userId, items, NDJSON);
+    }
+
+    public Mono<ResponseEntity<Object>> update(ItemCreationDto patch, long itemId, long sharerId) {
         return patch("/" + itemId, sharerId, patch);
     }
 
-    public ResponseEntity<Object> getItem(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> getItem(long itemId, long userId) {
         LocalDateTime time = LocalDateTime.now();
         Map<String, Object> params = Map.of("time", time);
         return get("/" + itemId + "?time={time}", userId, params);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(long userId) {
+    public Mono<ResponseEntity<Object>> getItemsByUserId(long userId, Integer from, Integer size) {
         LocalDateTime time = LocalDateTime.now();
-        Map<String, Object> params = Map.of("time", time);
-        return get("?time={time}", userId, params);
+        Map<String, Object> params = Map.of(
+                "from", from,
+                "size", size,
+                "time", time
+        );
+        return get("?from={from}&size={size}&time={time}", userId, params);
     }
 
-    public ResponseEntity<Object> search(long userId, String text) {
-        Map<String, Object> params = Map.of("text", text);
-        return get("/search?text={text}", userId, params);
+    public Mono<ResponseEntity<Object>> search(long userId, String text, Integer from, Integer size) {
+        Map<String, Object> params = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> addComment(CommentCreationDto creationDto, long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> addComment(CommentCreationDto creationDto, long userId, long itemId) {
         return post("/" + itemId + "/comment", userId, creationDto);
     }
 
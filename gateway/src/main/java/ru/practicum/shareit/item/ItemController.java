@@ -3,58 +3,71 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class ItemController {
 
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestBody ItemCreationDto item,
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody ItemCreationDto item,
                                           @RequestHeader("X-Sharer-User-Id") long sharerId) {
         log.info("Creating item {}", item);
         return itemClient.add(item, sharerId);
     }
 
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<Object> importItems(InputStream items, @RequestHeader("X-Sharer-User-Id") long sharerId) {
+        log.info("Importing items for user id={}", sharerId);
+        return itemClient.importItems(items, sharerId);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> update(@PathVariable long itemId,
                           @RequestHeader("X-Sharer-User-Id") long sharerId, @RequestBody ItemCreationDto patch) {
         log.info("Update item with id={} by user id={} patch={}", itemId, sharerId, patch);
         return itemClient.update(patch, itemId, sharerId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable long itemId,
                                               @RequestHeader("X-Sharer-User-Id") long sharerId) {
         log.info("Getting item with id={} by user id={}", itemId, sharerId);
         return itemClient.getItem(itemId, sharerId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsersItems(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                          @RequestParam(name = "from", required = false) Integer from,
-                                          @RequestParam(name = "size", required = false) Integer size) {
-        log.info("Getting all items for user id={}", sharerId);
-        return itemClient.getItemsByUserId(sharerId);
+    public Mono<ResponseEntity<Object>> getAllUsersItems(@RequestHeader("X-Sharer-User-Id") long sharerId,
+                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Getting all items for user id={}, from={}, size={}", sharerId, from, size);
+        return itemClient.getItemsByUserId(sharerId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") long sharerId,
+    public Mono<ResponseEntity<Object>> search(@RequestHeader("X-Sharer-User-Id") long sharerId,
                                          @RequestParam(name = "text") String searchText,
-                                @RequestParam(name = "from", required = false) Integer from,
-                                @RequestParam(name = "size", required = false) Integer size) {
-        log.info("Searching items by text={}", searchText);
-        return itemClient.search(sharerId, searchText);
+                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Searching items by text={}, from={}, size={}", searchText, from, size);
+        return itemClient.search(sharerId, searchText, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestBody CommentCreationDto commentDto,
+    public Mono<ResponseEntity<Object>> addComment(@RequestBody CommentCreationDto commentDto,
                                  @RequestHeader("X-Sharer-User-Id") long sharerId, @PathVariable long itemId) {
         log.info("Add comment {}", commentDto);
         return itemClient.addComment(commentDto, sharerId, itemId);
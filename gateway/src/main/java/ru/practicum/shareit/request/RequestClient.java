@@ -4,11 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.RequestCreationDto;
+import ru.practicum.shareit.user.UserExistenceCache;
 
 import java.util.Map;
 
@@ -18,28 +20,32 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ServerTransport transport,
+                         UserExistenceCache userExistenceCache) {
         super(
+                serverUrl + API_PREFIX,
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                transport,
+                userExistenceCache
         );
     }
 
-    public ResponseEntity<Object> add(RequestCreationDto dto, long userId) {
+    public Mono<ResponseEntity<Object>> add(RequestCreationDto dto, long userId) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getForUser(long userId) {
+    public Mono<ResponseEntity<Object>> getForUser(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequest(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllFromOtherUsers(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllFromOtherUsers(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
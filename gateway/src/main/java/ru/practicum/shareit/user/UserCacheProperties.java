@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size and lifetimes of the {@link UserExistenceCache} entries.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.user-cache")
+public class UserCacheProperties {
+
+    private long maxSize = 100_000;
+    private Duration existingTtl = Duration.ofMinutes(10);
+    private Duration missingTtl = Duration.ofSeconds(30);
+}
@@ -2,47 +2,73 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @RestController
 @RequestMapping(path = "users")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class UserController {
 
     private final UserClient userClient;
+    private final UserExistenceCache userExistenceCache;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto user) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid UserDto user) {
         log.info("Creating user {}", user);
-        return userClient.addUser(user);
+        return userClient.addUser(user)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        userExistenceCache.forgetMissing();
+                    }
+                });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         log.info("Getting user with id={}", id);
         return userClient.getUser(id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestBody UserDto patch, @PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> update(@RequestBody UserDto patch, @PathVariable Long id) {
         log.info("Updating user with id={} patch={}", id, patch);
         return userClient.updateUser(id, patch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
-        log.info("Getting all users");
-        return userClient.getUsers();
+    public Mono<ResponseEntity<Object>> getAll(@PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
+                                         @Positive @RequestParam(name = "size", required = false) Integer size) {
+        log.info("Getting all users from={}, size={}", from, size);
+        return userClient.getUsers(from, size);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Streaming all users");
+        StreamingResponseBody body = userClient::streamUsers;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> deleteById(@PathVariable Long id) {
         log.info("Delete users with id={}", id);
-        userClient.deleteUser(id);
+        return userClient.deleteUser(id)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        userExistenceCache.markMissing(id);
+                    }
+                });
     }
 }
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+
+/**
+ * Users recently seen by the gateway as existing or missing on shareit-server.
+ * Requests from a missing X-Sharer-User-Id are answered here instead of costing the server a lookup.
+ * Missing users are kept apart and live shorter, as another gateway may create the user meanwhile.
+ */
+@Component
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserExistenceCache {
+
+    /**
+     * Set by shareit-server on a 404 caused by a missing user. The server has its own copy of the name
+     * in its UserNotFoundException, as the two modules share no code; keep them equal.
+     */
+    public static final String MISSING_USER_HEADER = "X-Missing-User-Id";
+
+    private final Cache<Long, Boolean> existing;
+    private final Cache<Long, Boolean> missing;
+
+    public UserExistenceCache(UserCacheProperties properties) {
+        existing = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getExistingTtl())
+                .build();
+        missing = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getMissingTtl())
+                .build();
+    }
+
+    public void requireNotMissing(@Nullable Long userId) {
+        if (userId != null && missing.getIfPresent(userId) != null) {
+            throw new UserNotFoundException(userId);
+        }
+    }
+
+    /**
+     * Learns from a shareit-server response to a request made by {@code userId}.
+     */
+    public void remember(@Nullable Long userId, ResponseEntity<?> response) {
+        String missingUserId = response.getHeaders().getFirst(MISSING_USER_HEADER);
+        if (missingUserId != null) {
+            markMissing(Long.valueOf(missingUserId));
+        } else if (userId != null && response.getStatusCode().is2xxSuccessful()) {
+            missing.invalidate(userId);
+            existing.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void markMissing(Long userId) {
+        existing.invalidate(userId);
+        missing.put(userId, Boolean.TRUE);
+    }
+
+    /**
+     * A new user may take an id remembered as missing, and the id is only known from the response body,
+     * which the gateway does not parse. So every missing entry is dropped; existing ones are kept.
+     */
+    public void forgetMissing() {
+        missing.invalidateAll();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.WebClientTransport;
+
+@SpringBootTest(properties = "shareit-server.url=http://localhost:9090")
+@ActiveProfiles("reactive")
+class ReactiveShareItGatewayTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void reactiveProfileUsesWebClientTransportTest() {
+        Assertions.assertEquals(1, context.getBeanNamesForType(BookingController.class).length);
+        Assertions.assertTrue(context.getBean(ServerTransport.class) instanceof WebClientTransport);
+        Assertions.assertEquals(1, context.getBeanNamesForType(WebClient.class).length);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.user.UserCacheProperties;
+
+import java.time.Duration;
+
+@SpringBootTest(properties = "shareit-server.url=http://localhost:9090")
+class ShareItGatewayTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void defaultModeUsesRestTemplateTransportTest() {
+        Assertions.assertEquals(1, context.getBeanNamesForType(BookingController.class).length);
+        Assertions.assertTrue(context.getBean(ServerTransport.class) instanceof RestTemplateTransport);
+        Assertions.assertEquals(0, context.getBeanNamesForType(WebClient.class).length);
+    }
+
+    @Test
+    void userCacheDefaultsApplyWithoutPropertiesTest() {
+        Assertions.assertEquals(Duration.ofSeconds(30), context.getBean(UserCacheProperties.class).getMissingTtl());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.UserCacheProperties;
+import ru.practicum.shareit.user.UserExistenceCache;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+public class BaseClientTest {
+
+    private static final String BOOKING = "{\"id\":1,\"status\":\"WAITING\"}";
+
+    private final RestTemplate rest = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+    private final UserExistenceCache users = new UserExistenceCache(new UserCacheProperties());
+    private final TestClient client = new TestClient(rest, users);
+
+    @Test
+    void relaysServerResponseAsBytesTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Connection", "keep-alive");
+        headers.set("X-Next-Cursor", "abc");
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers)
+                        .body(BOOKING));
+
+        ResponseEntity<Object> response = client.getBooking(1L).block();
+
+        server.verify();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertArrayEquals(BOOKING.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        Assertions.assertFalse(response.getHeaders().containsKey("Connection"));
+    }
+
+    @Test
+    void relaysServerErrorTest() {
+        String error = "{\"error\":\"Бронирование не найдено\"}";
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.getBooking(1L).block();
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        Assertions.assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void missingUserIsNotSentToServerAgainTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(UserExistenceCache.MISSING_USER_HEADER, "1");
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).headers(headers));
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, client.getBooking(1L).block().getStatusCode());
+        Assertions.assertThrows(UserNotFoundException.class, () -> client.getBooking(1L));
+
+        server.verify();
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(RestTemplate rest, UserExistenceCache users) {
+            super("http://localhost:9090", rest, new RestTemplateTransport(rest), users);
+        }
+
+        Mono<ResponseEntity<Object>> getBooking(long userId) {
+            return get("/bookings/1", userId);
+        }
+    }
+}
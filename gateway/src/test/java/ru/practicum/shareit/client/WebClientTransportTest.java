@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.UserCacheProperties;
+import ru.practicum.shareit.user.UserExistenceCache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class WebClientTransportTest {
+
+    private static final String BOOKING = "{\"id\":1,\"status\":\"WAITING\"}";
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private final UserExistenceCache users = new UserExistenceCache(new UserCacheProperties());
+
+    @Test
+    void relaysServerResponseAsBytesTest() {
+        TestClient client = client(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .header("X-Next-Cursor", "abc")
+                .body(BOOKING)
+                .build());
+
+        ResponseEntity<Object> response = client.getBooking(1L, "ALL").block();
+
+        Assertions.assertEquals(1, requests.size());
+        ClientRequest request = requests.get(0);
+        Assertions.assertEquals(HttpMethod.GET, request.method());
+        Assertions.assertEquals("http://localhost:9090/bookings?state=ALL", request.url().toString());
+        Assertions.assertEquals("1", request.headers().getFirst("X-Sharer-User-Id"));
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertArrayEquals(BOOKING.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        Assertions.assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void relaysServerErrorTest() {
+        String error = "{\"error\":\"Unknown state: ALL\"}";
+        TestClient client = client(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(error)
+                .build());
+
+        ResponseEntity<Object> response = client.getBooking(1L, "ALL").block();
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void missingUserIsNotSentToServerAgainTest() {
+        TestClient client = client(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(UserExistenceCache.MISSING_USER_HEADER, "1")
+                .build());
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, client.getBooking(1L, "ALL").block().getStatusCode());
+        Assertions.assertThrows(UserNotFoundException.class, () -> client.getBooking(1L, "ALL"));
+        Assertions.assertEquals(1, requests.size());
+    }
+
+    private TestClient client(ClientResponse response) {
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(response);
+                })
+                .build();
+        return new TestClient(web, users);
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(WebClient web, UserExistenceCache users) {
+            super("http://localhost:9090", new RestTemplate(), new WebClientTransport(web), users);
+        }
+
+        Mono<ResponseEntity<Object>> getBooking(long userId, String state) {
+            return get("/bookings?state={state}", userId, Map.of("state", state));
+        }
+    }
+}
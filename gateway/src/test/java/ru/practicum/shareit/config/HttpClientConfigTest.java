@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+@SpringBootTest(properties = {
+        "shareit-server.url=http://localhost:9090",
+        "shareit-server.http.max-total=50",
+        "shareit-server.http.max-per-route=20"
+})
+public class HttpClientConfigTest {
+
+    private static final String POOL = "shareit-server";
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    private ClientHttpRequestFactory requestFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void poolIsSizedFromPropertiesTest() {
+        Assertions.assertEquals(50, connectionManager.getMaxTotal());
+        Assertions.assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+        Assertions.assertTrue(requestFactory instanceof HttpComponentsClientHttpRequestFactory);
+    }
+
+    @Test
+    void poolMetricsAreExportedTest() {
+        Assertions.assertEquals(50, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", POOL).gauge().value());
+        Assertions.assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", POOL).gauge());
+    }
+}
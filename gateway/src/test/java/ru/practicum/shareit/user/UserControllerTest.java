@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.ErrorHandler;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserControllerTest {
+
+    private static final String USER = "{\"id\":1,\"name\":\"a\",\"email\":\"b@ya.ru\"}";
+
+    @Mock
+    private UserClient userClient;
+
+    private final UserExistenceCache userExistenceCache =
+            new UserExistenceCache(new UserCacheProperties());
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new UserController(userClient, userExistenceCache))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    public void getUserRelaysServerBytesTest() throws Exception {
+        Mockito.when(userClient.getUser(1L)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(USER.getBytes(StandardCharsets.UTF_8))));
+
+        perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(USER));
+    }
+
+    @Test
+    public void deleteMarksUserMissingTest() throws Exception {
+        Mockito.when(userClient.deleteUser(1L)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        perform(delete("/users/1"))
+                .andExpect(status().isOk());
+
+        Assertions.assertThrows(UserNotFoundException.class, () -> userExistenceCache.requireNotMissing(1L));
+    }
+
+    @Test
+    public void failedDeleteKeepsUserTest() throws Exception {
+        Mockito.when(userClient.deleteUser(1L)).thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+
+        perform(delete("/users/1"))
+                .andExpect(status().isNotFound());
+
+        userExistenceCache.requireNotMissing(1L);
+    }
+
+    @Test
+    public void addUserForgetsMissingUsersTest() throws Exception {
+        userExistenceCache.markMissing(1L);
+        Mockito.when(userClient.addUser(Mockito.any())).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(USER.getBytes(StandardCharsets.UTF_8))));
+
+        perform(post("/users")
+                        .content(USER)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(USER));
+
+        userExistenceCache.requireNotMissing(1L);
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+
+import java.time.Duration;
+
+public class UserExistenceCacheTest {
+
+    private final UserExistenceCache cache = new UserExistenceCache(new UserCacheProperties());
+
+    @Test
+    void userNamedByServerIsMissingTest() {
+        ResponseEntity<Object> notFound = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .header(UserExistenceCache.MISSING_USER_HEADER, "2")
+                .build();
+
+        cache.remember(1L, notFound);
+
+        cache.requireNotMissing(1L);
+        final UserNotFoundException exception = Assertions.assertThrows(
+                UserNotFoundException.class, () -> cache.requireNotMissing(2L));
+        Assertions.assertEquals("Пользователь с id 2 не найден", exception.getMessage());
+    }
+
+    @Test
+    void successfulResponseIsNotMissingTest() {
+        cache.markMissing(1L);
+
+        cache.remember(1L, ResponseEntity.ok().build());
+
+        cache.requireNotMissing(1L);
+    }
+
+    @Test
+    void otherNotFoundDoesNotMarkUserTest() {
+        cache.remember(1L, ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        cache.requireNotMissing(1L);
+    }
+
+    @Test
+    void forgetMissingTest() {
+        cache.markMissing(1L);
+
+        cache.forgetMissing();
+
+        cache.requireNotMissing(1L);
+    }
+
+    @Test
+    void missingUserExpiresTest() throws InterruptedException {
+        UserCacheProperties properties = new UserCacheProperties();
+        properties.setMissingTtl(Duration.ofMillis(50));
+        UserExistenceCache shortCache = new UserExistenceCache(properties);
+        shortCache.markMissing(1L);
+        Assertions.assertThrows(UserNotFoundException.class, () -> shortCache.requireNotMissing(1L));
+
+        Thread.sleep(100);
+
+        shortCache.requireNotMissing(1L);
+    }
+}
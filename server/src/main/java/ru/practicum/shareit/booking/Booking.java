@@ -1,6 +1,5 @@
 package ru.practicum.shareit.booking;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.model.Item;
@@ -15,7 +14,6 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings", schema = "public")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
 
@@ -29,13 +27,37 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker;
     private String status;
 
+    /**
+     * Copy of item.user.id, lets owner queries filter and sort on bookings alone.
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Version
+    private Long version;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, String status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    @PrePersist
+    private void fillOwnerId() {
+        if (item != null && item.getUser() != null) {
+            ownerId = item.getUser().getId();
+        }
+    }
 }
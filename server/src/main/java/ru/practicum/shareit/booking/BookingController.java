@@ -3,8 +3,10 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.time.LocalDateTime;
@@ -19,6 +21,8 @@ import java.util.List;
 @Slf4j
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -36,6 +40,14 @@ public class BookingController {
         return bookingService.update(bookingId, sharerId, approveStatus);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionDto> updateBookings(@RequestBody List<Long> bookingIds,
+                                                   @RequestHeader("X-Sharer-User-Id") Long sharerId,
+                                                   @RequestParam(name = "approved") String approveStatus) {
+        log.info("Update bookings ids={} approve={} by user id={}", bookingIds, approveStatus, sharerId);
+        return bookingService.updateAll(bookingIds, sharerId, approveStatus);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") long sharerId) {
         log.info("Get booking {}, userId={}", bookingId, sharerId);
@@ -43,26 +55,48 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllByUserId(@RequestHeader("X-Sharer-User-Id") long sharerId,
+    public ResponseEntity<List<BookingDto>> getAllByUserId(@RequestHeader("X-Sharer-User-Id") long sharerId,
                                            @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
                                            @RequestParam(name = "from", required = false) Integer from,
                                            @RequestParam(name = "size", required = false) Integer size,
                                            @RequestParam(name = "time", required = false)
-                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
-        log.info("Get bookings with state {}, userId={}, from={}, size={}, time={}", state, size, from, size, time);
-        return bookingService.getAllByState(sharerId, state, from, size, time);
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time,
+                                           @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Get bookings with state {}, userId={}, from={}, size={}, time={}, cursor={}",
+                state, sharerId, from, size, time, cursor);
+        if (cursor != null) {
+            return withNextCursor(bookingService.getAllByCursor(sharerId, state, cursor, size, time), size);
+        }
+        return withNextCursor(bookingService.getAllByState(sharerId, state, from, size, time), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllForOwner(@RequestHeader("X-Sharer-User-Id") Long sharerId,
+    public ResponseEntity<List<BookingDto>> getAllForOwner(@RequestHeader("X-Sharer-User-Id") Long sharerId,
                                            @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
                                            @RequestParam(name = "from", required = false) Integer from,
                                            @RequestParam(name = "size", required = false) Integer size,
                                            @RequestParam(name = "time", required = false)
-                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
-        log.info("Getting all bookings for owner id={} by params state={} from={} size={}, time={}",
-                sharerId, state, from, size, time);
-        return bookingService.getAllByOwnerAndState(sharerId, state, from, size, time);
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time,
+                                           @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Getting all bookings for owner id={} by params state={} from={} size={}, time={}, cursor={}",
+                sharerId, state, from, size, time, cursor);
+        if (cursor != null) {
+            return withNextCursor(bookingService.getAllForOwnerByCursor(sharerId, state, cursor, size, time), size);
+        }
+        return withNextCursor(bookingService.getAllByOwnerAndState(sharerId, state, from, size, time), size);
+    }
+
+    /**
+     * Every state is ordered by (end desc, id desc), so the last row of a full page is where the next one starts.
+     */
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (size == null || size <= 0 || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new BookingCursor(last.getEnd(), last.getId()).encode())
+                .body(bookings);
     }
 
 
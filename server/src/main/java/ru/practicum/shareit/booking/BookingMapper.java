@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
+import ru.practicum.shareit.booking.dto.UserShortDto;
 
 public class BookingMapper {
 
@@ -9,8 +11,8 @@ public class BookingMapper {
         return new BookingDto(booking.getId(),
                 booking.getStart(),
                 booking.getEnd(),
-                booking.getItem(),
-                booking.getBooker(),
+                new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()),
+                new UserShortDto(booking.getBooker().getId()),
                 booking.getStatus());
     }
 
@@ -23,15 +25,6 @@ public class BookingMapper {
                 BookingStatus.WAITING.name());
     }
 
-    public static Booking fromBookingDto(BookingDto bookingDto) {
-        return new Booking(bookingDto.getId(),
-                bookingDto.getStart(),
-                bookingDto.getEnd(),
-                bookingDto.getItem(),
-                bookingDto.getBooker(),
-                bookingDto.getStatus());
-    }
-
     public static BookingItemDto toBookingItemDto(Booking booking) {
         return new BookingItemDto(booking.getId(), booking.getBooker().getId());
     }
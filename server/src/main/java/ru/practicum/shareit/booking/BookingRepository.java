@@ -1,46 +1,63 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    @Query("select b from Booking b where b.booker.id = ?2 and b.status = ?1 order by b.end desc")
-    List<Booking> findAllByStatus(String status, Long sharerId, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.user", "booker"})
+    Optional<Booking> findById(Long id);
 
-    @Query("select b from Booking b where b.item.user.id = ?2 and b.status = ?1 order by b.end desc")
-    List<Booking> findAllForOwnerByStatus(String status, Long sharerId, Pageable pageable);
-
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.end desc")
-    List<Booking> findAllOrderByEnd(Long sharerId, Pageable pageable);
+    @Query("select b from Booking b where b.item.id = ?1 and b.booker.id = ?2 and b.end < ?3")
+    List<Booking> findAllBookingsForItemAndUserByEndTime(Long itemId, Long userId, LocalDateTime commentTime);
 
-    List<Booking> findAllByEndIsAfterAndStartIsBefore(LocalDateTime end, LocalDateTime start, Pageable pageable);
+    @EntityGraph(attributePaths = "booker")
+    Optional<Booking> findFirstByItemIdAndStartLessThanEqualOrderByEndDesc(Long itemId, LocalDateTime now);
 
-    @Query("select b from Booking b where b.start < ?1 and b.end > ?1 and b.item.user.id = ?2")
-    List<Booking> findAllByCurrentStateFowOwner(LocalDateTime currentTime, Long ownerId, Pageable pageable);
+    @EntityGraph(attributePaths = "booker")
+    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAsc(Long itemId, LocalDateTime now,
+                                                                                String status);
 
-    @Query("select b from Booking b where b.end < ?1 order by b.end desc")
-    List<Booking> findAllByEndIsBefore(LocalDateTime end, Pageable pageable);
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Booking b set b.status = ?2, b.version = b.version + 1 where b.id = ?1 and b.version = ?3")
+    int updateStatus(Long bookingId, String status, Long expectedVersion);
 
-    @Query("select b from Booking b where b.start > ?1 order by b.end desc")
-    List<Booking> findAllByStartIsAfter(LocalDateTime start, Pageable pageable);
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Booking b set b.status = ?2, b.version = b.version + 1 where b.id in ?1 and b.status <> ?2")
+    int updateStatusForAll(Collection<Long> bookingIds, String status);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b join fetch b.item i join fetch i.user join fetch b.booker " +
+            "where b.id in ?1 order by b.id")
+    List<Booking> findAllWithItemByIdForUpdate(Collection<Long> bookingIds);
 
-    @Query("select b from Booking b where b.item.user.id = ?1 order by b.end desc")
-    List<Booking> findAllByOwner(Long ownerId, Pageable pageable);
+    @Query("select b from Booking b where b.item.id in ?1 and b.status = 'APPROVED' and b.start < ?3 and b.end > ?2")
+    List<Booking> findApprovedForItemsBetween(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
 
-    @Query("select b from Booking b where b.item.id = ?1 and b.booker.id = ?2 and b.end < ?3")
-    List<Booking> findAllBookingsForItemAndUserByEndTime(Long itemId, Long userId, LocalDateTime commentTime);
+    @Query("select count(b) > 0 from Booking b where b.item.id = ?1 and b.status = 'APPROVED' " +
+            "and b.start < ?3 and b.end > ?2")
+    boolean existsApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end);
 
-    @Query("select b from Booking b where b.start <= ?1 and b.item.id = ?2 order by b.end desc")
-    List<Booking> findLastBookingForItem(LocalDateTime now, Long itemId);
+    @EntityGraph(attributePaths = "booker")
+    @Query("select b from Booking b where b.item.id in ?2 and b.start <= ?1 " +
+            "and b.end = (select max(lb.end) from Booking lb where lb.item.id = b.item.id and lb.start <= ?1)")
+    List<Booking> findLastBookingsForItems(LocalDateTime now, Collection<Long> itemIds);
 
-    @Query("select b from Booking b where b.start > ?1 and b.item.id = ?2 order by b.start asc")
-    List<Booking> findNextBookingForItem(LocalDateTime now, Long itemId);
+    @EntityGraph(attributePaths = "booker")
+    @Query("select b from Booking b where b.item.id in ?2 and b.start > ?1 and b.status <> 'REJECTED' " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = b.item.id and nb.start > ?1 and nb.status <> 'REJECTED')")
+    List<Booking> findNextBookingsForItems(LocalDateTime now, Collection<Long> itemIds);
 }
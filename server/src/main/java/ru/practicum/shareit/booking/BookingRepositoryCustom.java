@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Bookings of one booker or owner in the given state, ordered by (end desc, id desc).
+     * A non-null cursor starts the page right after that position, a null pageable returns everything.
+     */
+    List<BookingDto> findAllByState(BookingScope scope, Long userId, BookingState state, LocalDateTime time,
+                                    BookingCursor cursor, Pageable pageable);
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findAllByState(BookingScope scope, Long userId, BookingState state, LocalDateTime time,
+                                           BookingCursor cursor, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        query.select(cb.construct(BookingDto.class,
+                booking.get("id"),
+                booking.get("start"),
+                booking.get("end"),
+                item.get("id"),
+                item.get("name"),
+                booking.get("booker").get("id"),
+                booking.get("status")));
+
+        // scope column first and (end, id) ordering match the (user, [status,] end_date desc) indexes
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(scope.userId(booking), userId));
+        predicates.add(state.toPredicate(cb, booking, time));
+        if (cursor != null) {
+            predicates.add(afterCursor(cb, booking, cursor));
+        }
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("end")), cb.desc(booking.get("id")));
+
+        TypedQuery<BookingDto> typedQuery = entityManager.createQuery(query);
+        if (pageable != null && pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private Predicate afterCursor(CriteriaBuilder cb, Root<Booking> booking, BookingCursor cursor) {
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+        return cb.or(cb.lessThan(end, cursor.getEnd()),
+                cb.and(cb.equal(end, cursor.getEnd()), cb.lessThan(id, cursor.getId())));
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+
+/**
+ * Whose bookings a list query returns.
+ */
+public enum BookingScope {
+    BOOKER {
+        @Override
+        Path<Long> userId(Root<Booking> booking) {
+            return booking.get("booker").get("id");
+        }
+    },
+    OWNER {
+        @Override
+        Path<Long> userId(Root<Booking> booking) {
+            return booking.get("ownerId");
+        }
+    };
+
+    abstract Path<Long> userId(Root<Booking> booking);
+}
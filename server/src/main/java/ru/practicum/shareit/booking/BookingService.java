@@ -2,19 +2,31 @@ package ru.practicum.shareit.booking;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exceptions.exceptions.*;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
+import ru.practicum.shareit.validation.PaginationValidator;
 
 import java.time.LocalDateTime;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -22,15 +34,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    private static final long UPDATE_BACKOFF_MILLIS = 20;
+    static final int MAX_BATCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceGuard userGuard;
+    private final TransactionTemplate transactionTemplate;
 
     public BookingDto add(BookingCreationDto creationDto, Long sharerId) {
         Booking booking = BookingMapper.fromBookingCreationDto(creationDto);
         booking.setBooker(userRepository.findById(sharerId).orElseThrow(()
                 -> {
-            throw new UserNotFoundException("Пользователь с id " + creationDto.getUserId() + " не найден"); }));
+            throw new UserNotFoundException(sharerId); }));
         booking.setItem(itemRepository.findById(creationDto.getItemId()).orElseThrow(()
                 -> {
             throw new ItemNotFoundException("Предмет с id " + creationDto.getItemId() + " не найден"); }));
@@ -38,29 +56,74 @@ public class BookingService {
         return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
 
+    /**
+     * Every attempt runs in its own transaction: a retry reads what the winner committed,
+     * and the item lock is released before backing off.
+     */
     public BookingDto update(Long bookingId, Long sharerId, String approvedStatus) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(()
-                -> {
-            throw new BookingNotFoundException("Бронь с id " + bookingId + " не найдена"); });
-        if (!sharerId.equals(booking.getItem().getUser().getId())) {
-            throw new NoRightsException("У пользователя с id " + sharerId + " нет прав для подтверждения бронирования");
+        String status = Boolean.parseBoolean(approvedStatus)
+                ? BookingStatus.APPROVED.name() : BookingStatus.REJECTED.name();
+        for (int attempt = 1; ; attempt++) {
+            BookingDto updated = transactionTemplate.execute(transaction -> tryUpdate(bookingId, sharerId, status));
+            if (updated != null) {
+                return updated;
+            }
+            if (attempt == MAX_UPDATE_ATTEMPTS) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, bookingId);
+            }
+            backOff(attempt);
         }
-        if (Boolean.parseBoolean(approvedStatus)) {
-            if (booking.getStatus().equals(BookingStatus.APPROVED.name())) {
-                throw new IncorrectActionException("Бронирование уже подтверждено");
+    }
+
+    /**
+     * Applies one decision to many bookings: item locks for approvals, one locking select and one set-based update.
+     * Items are locked before bookings, in the same order as a single approval, so the two cannot deadlock.
+     * Bookings that cannot be changed are reported per id and do not fail the rest of the batch.
+     */
+    @Transactional
+    public List<BookingDecisionDto> updateAll(List<Long> bookingIds, Long sharerId, String approvedStatus) {
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new IncorrectRequestParamException("Количество бронирований в запросе должно быть от 1 до "
+                    + MAX_BATCH_SIZE);
+        }
+        boolean approve = Boolean.parseBoolean(approvedStatus);
+        String status = approve ? BookingStatus.APPROVED.name() : BookingStatus.REJECTED.name();
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (approve) {
+            itemRepository.findAllByBookingIdsForUpdate(ids, sharerId);
+        }
+        // the rows stay locked until commit, so no decision can slip in between this read and the update
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, String> errors = new HashMap<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                errors.put(id, "Бронь с id " + id + " не найдена");
+            } else if (!sharerId.equals(booking.getItem().getUser().getId())) {
+                errors.put(id, "У пользователя с id " + sharerId + " нет прав для подтверждения бронирования");
+            } else if (approve && booking.getStatus().equals(BookingStatus.APPROVED.name())) {
+                errors.put(id, "Бронирование уже подтверждено");
+            } else {
+                accepted.add(booking);
             }
-            booking.setStatus(BookingStatus.APPROVED.name());
         }
-        if (!Boolean.parseBoolean(approvedStatus)) {
-            booking.setStatus(BookingStatus.REJECTED.name());
+        if (approve) {
+            accepted = withoutOverlaps(accepted, errors);
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        applyStatus(accepted, status);
+
+        return ids.stream()
+                .map(id -> errors.containsKey(id)
+                        ? new BookingDecisionDto(id, null, errors.get(id))
+                        : new BookingDecisionDto(id, status, null))
+                .collect(Collectors.toList());
     }
 
     public BookingDto getById(Long bookingId, Long sharerId) {
-        userRepository.findById(sharerId).orElseThrow(()
-                -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); });
+        userGuard.requireExists(sharerId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(()
                 -> {
             throw new BookingNotFoundException("Бронь с id " + bookingId + " не найдена"); });
@@ -71,33 +134,29 @@ public class BookingService {
     }
 
     public List<BookingDto> getAllByState(Long sharerId, String state, Integer from, Integer size, LocalDateTime time) {
-        userRepository.findById(sharerId).orElseThrow(()
-                -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); });
+        userGuard.requireExists(sharerId);
 
         if (Arrays.stream(BookingState.values()).noneMatch(existsState -> existsState.name().equals(state))) {
             throw new UnsupportedStatusException("Unknown state: " + state.toUpperCase());
         }
-        switch (BookingState.valueOf(state.toUpperCase())) {
-            case ALL:
-                return bookingRepository.findAllOrderByEnd(sharerId, createPage(from, size)).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByEndIsBefore(time,createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByEndIsAfterAndStartIsBefore(time, time,createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByStartIsAfter(time,createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case REJECTED:
-            case WAITING:
-                return bookingRepository.findAllByStatus(state, sharerId, createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            default:
-                return Collections.emptyList();
-        }
+        return bookingRepository.findAllByState(BookingScope.BOOKER, sharerId, BookingState.valueOf(state.toUpperCase()),
+                timeOrNow(time), null, createPage(from, size));
+    }
+
+    public List<BookingDto> getAllByCursor(Long sharerId, String state, String cursor, Integer size,
+                                           LocalDateTime time) {
+        BookingState bookingState = toCursorState(state, size);
+        userGuard.requireExists(sharerId);
+        return bookingRepository.findAllByState(BookingScope.BOOKER, sharerId, bookingState, timeOrNow(time),
+                BookingCursor.decode(cursor), PageRequest.of(0, size));
+    }
+
+    public List<BookingDto> getAllForOwnerByCursor(Long sharerId, String state, String cursor, Integer size,
+                                                   LocalDateTime time) {
+        BookingState bookingState = toCursorState(state, size);
+        userGuard.requireExists(sharerId);
+        return bookingRepository.findAllByState(BookingScope.OWNER, sharerId, bookingState, timeOrNow(time),
+                BookingCursor.decode(cursor), PageRequest.of(0, size));
     }
 
     public List<BookingDto> getAllByOwnerAndState(Long sharerId, String state, Integer from, Integer size, LocalDateTime time) {
@@ -105,30 +164,10 @@ public class BookingService {
             throw new UnsupportedStatusException("Unknown state: " + state.toUpperCase());
 
         }
-        userRepository.findById(sharerId).orElseThrow(()
-                -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); });
-
-        switch (BookingState.valueOf(state.toUpperCase())) {
-            case ALL:
-                return bookingRepository.findAllByOwner(sharerId, createPage(from, size)).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByCurrentStateFowOwner(time, sharerId, createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByStartIsAfter(time, createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByEndIsBefore(time, createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case WAITING:
-            case REJECTED:
-                return bookingRepository.findAllForOwnerByStatus(state, sharerId, createPage(from, size))
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            default:
-                return Collections.emptyList();
-        }
+        userGuard.requireExists(sharerId);
+
+        return bookingRepository.findAllByState(BookingScope.OWNER, sharerId, BookingState.valueOf(state.toUpperCase()),
+                timeOrNow(time), null, createPage(from, size));
     }
 
     private void validate(Booking booking, Long userId) {
@@ -141,21 +180,123 @@ public class BookingService {
             throw new NoRightsException("Вы не можете забронировать свой предмет");
         }
 
+        checkOverlap(booking);
     }
 
-    private PageRequest createPage(Integer from, Integer size) {
-        if (from == null || size == null) {
+    private void checkOverlap(Booking booking) {
+        if (bookingRepository.existsApprovedOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+            throw new BookingOverlapException("Предмет уже забронирован на это время");
+        }
+    }
+
+    private List<Booking> withoutOverlaps(List<Booking> candidates, Map<Long, String> errors) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<Long> itemIds = candidates.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        LocalDateTime start = candidates.stream().map(Booking::getStart).min(LocalDateTime::compareTo).get();
+        LocalDateTime end = candidates.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).get();
+        Map<Long, List<Booking>> approvedByItem = bookingRepository.findApprovedForItemsBetween(itemIds, start, end)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        List<Booking> accepted = new ArrayList<>();
+        for (Booking candidate : candidates) {
+            List<Booking> approved = approvedByItem.computeIfAbsent(candidate.getItem().getId(),
+                    itemId -> new ArrayList<>());
+            boolean overlaps = approved.stream().anyMatch(booking -> booking.getStart().isBefore(candidate.getEnd())
+                    && booking.getEnd().isAfter(candidate.getStart()));
+            if (overlaps) {
+                errors.put(candidate.getId(), "Предмет уже забронирован на это время");
+            } else {
+                approved.add(candidate);
+                accepted.add(candidate);
+            }
+        }
+        return accepted;
+    }
+
+    private void applyStatus(List<Booking> bookings, String status) {
+        List<Long> changedIds = bookings.stream()
+                .filter(booking -> !booking.getStatus().equals(status))
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        int updated;
+        try {
+            updated = bookingRepository.updateStatusForAll(changedIds, status);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingOverlapException("Предмет уже забронирован на это время");
+        }
+        // only a writer that bypassed the row locks can get here, the whole batch is rolled back
+        if (updated != changedIds.size()) {
+            throw new ObjectOptimisticLockingFailureException(Booking.class, changedIds);
+        }
+    }
+
+    private BookingDto tryUpdate(Long bookingId, Long sharerId, String status) {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(()
+                -> {
+            throw new BookingNotFoundException("Бронь с id " + bookingId + " не найдена"); });
+        if (!sharerId.equals(booking.getItem().getUser().getId())) {
+            throw new NoRightsException("У пользователя с id " + sharerId + " нет прав для подтверждения бронирования");
+        }
+        if (status.equals(BookingStatus.APPROVED.name())) {
+            if (booking.getStatus().equals(BookingStatus.APPROVED.name())) {
+                throw new IncorrectActionException("Бронирование уже подтверждено");
+            }
+            // the item row lock serializes approvals of one item until commit, other items are not blocked
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            checkOverlap(booking);
+        }
+        if (!compareAndSetStatus(booking, status)) {
             return null;
         }
-        if (from < 0) {
-            throw new IncorrectRequestParamException("Некорректные параметры постраничного отображения");
+        booking.setStatus(status);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    private boolean compareAndSetStatus(Booking booking, String status) {
+        try {
+            return bookingRepository.updateStatus(booking.getId(), status, booking.getVersion()) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // exclusion constraint on Postgres, backstop for writers that bypass the item lock
+            throw new BookingOverlapException("Предмет уже забронирован на это время");
         }
-        if (size < 0) {
-            throw new IncorrectRequestParamException("Некорректные параметры постраничного отображения");
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(UPDATE_BACKOFF_MILLIS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BookingState toCursorState(String state, Integer size) {
+        if (Arrays.stream(BookingState.values()).noneMatch(existsState -> existsState.name().equals(state.toUpperCase()))) {
+            throw new UnsupportedStatusException("Unknown state: " + state.toUpperCase());
         }
-        if (from == 0 && size == 0) {
+        if (size == null || size <= 0) {
             throw new IncorrectRequestParamException("Некорректные параметры постраничного отображения");
         }
+        return BookingState.valueOf(state.toUpperCase());
+    }
+
+    private LocalDateTime timeOrNow(LocalDateTime time) {
+        return time == null ? LocalDateTime.now() : time;
+    }
+
+    private PageRequest createPage(Integer from, Integer size) {
+        if (from == null || size == null) {
+            return null;
+        }
+        PaginationValidator.validatePagination(from, size);
         int page = from / size;
         return PageRequest.of(page, size);
     }
@@ -1,10 +1,50 @@
 package ru.practicum.shareit.booking;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+
 public enum BookingState {
-    ALL,
-    CURRENT,
-    PAST,
-    FUTURE,
-    WAITING,
-    REJECTED
+    ALL {
+        @Override
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time) {
+            return cb.conjunction();
+        }
+    },
+    CURRENT {
+        @Override
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time) {
+            return cb.and(cb.lessThan(booking.get("start"), time), cb.greaterThan(booking.get("end"), time));
+        }
+    },
+    PAST {
+        @Override
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time) {
+            return cb.lessThan(booking.get("end"), time);
+        }
+    },
+    FUTURE {
+        @Override
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time) {
+            return cb.greaterThan(booking.get("start"), time);
+        }
+    },
+    WAITING {
+        @Override
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time) {
+            return cb.equal(booking.get("status"), BookingStatus.WAITING.name());
+        }
+    },
+    REJECTED {
+        @Override
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time) {
+            return cb.equal(booking.get("status"), BookingStatus.REJECTED.name());
+        }
+    };
+
+    /**
+     * Condition a booking must meet to be in this state at the given moment.
+     */
+    abstract Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime time);
 }
@@ -2,8 +2,6 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 
@@ -16,8 +14,16 @@ public class BookingDto {
     private long id;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
+    private ItemShortDto item;
 
-    private User booker;
+    private UserShortDto booker;
     private String status;
+
+    /**
+     * Target of the JPQL constructor projections in BookingRepository.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName, Long bookerId,
+                      String status) {
+        this(id, start, end, new ItemShortDto(itemId, itemName), new UserShortDto(bookerId), status);
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through caches for user and item lookups. Size, TTL and statistics are set by
+ * spring.cache.caffeine.spec, hit/miss counters are exported as cache.* actuator metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+}
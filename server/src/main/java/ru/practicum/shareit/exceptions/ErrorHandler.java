@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exceptions;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -10,7 +12,18 @@ import ru.practicum.shareit.exceptions.exceptions.*;
 @RestControllerAdvice
 public class ErrorHandler {
 
-    @ExceptionHandler({UserNotFoundException.class, ItemNotFoundException.class,
+    @ExceptionHandler({UserNotFoundException.class})
+    public ResponseEntity<ErrorResponse> handleUserNotFoundException(final UserNotFoundException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.NOT_FOUND);
+        if (e.getUserId() != null) {
+            response.header(UserNotFoundException.MISSING_USER_HEADER, String.valueOf(e.getUserId()));
+        }
+        return response.body(new ErrorResponse(
+                e.getMessage()
+        ));
+    }
+
+    @ExceptionHandler({ItemNotFoundException.class,
             NoRightsException.class, BookingNotFoundException.class, RequestNotFoundException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(final RuntimeException e) {
@@ -30,7 +43,7 @@ public class ErrorHandler {
         );
     }
 
-    @ExceptionHandler({EmailAlreadyExistsException.class})
+    @ExceptionHandler({EmailAlreadyExistsException.class, BookingOverlapException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleConflictException(final RuntimeException e) {
         return new ErrorResponse(
@@ -38,5 +51,11 @@ public class ErrorHandler {
         );
     }
 
-
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(final RuntimeException e) {
+        return new ErrorResponse(
+                "Данные были изменены другим запросом, повторите попытку"
+        );
+    }
 }
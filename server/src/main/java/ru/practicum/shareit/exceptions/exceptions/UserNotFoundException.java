@@ -1,7 +1,25 @@
 package ru.practicum.shareit.exceptions.exceptions;
 
+import lombok.Getter;
+
 public class UserNotFoundException extends RuntimeException {
+
+    /**
+     * Sent with the 404 so the gateway can tell a missing user apart from other missing entities.
+     * The gateway reads it by its own UserExistenceCache.MISSING_USER_HEADER; keep the two names equal.
+     */
+    public static final String MISSING_USER_HEADER = "X-Missing-User-Id";
+
+    @Getter
+    private final Long userId;
+
     public UserNotFoundException(String message) {
         super(message);
+        this.userId = null;
+    }
+
+    public UserNotFoundException(Long userId) {
+        super("Пользователь с id " + userId + " не найден");
+        this.userId = userId;
     }
 }
@@ -7,8 +7,11 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -22,6 +25,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @PostMapping
     public ItemDto addItem(@RequestBody ItemDto item, @RequestHeader("X-Sharer-User-Id") long sharerId) {
@@ -29,6 +33,12 @@ public class ItemController {
         return itemService.add(item, sharerId);
     }
 
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ItemImportResultDto importItems(InputStream items, @RequestHeader("X-Sharer-User-Id") long sharerId) {
+        log.info("Importing items for user id={}", sharerId);
+        return itemImportService.importItems(items, sharerId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@PathVariable Long itemId,
                        @RequestHeader("X-Sharer-User-Id") long sharerId, @RequestBody ItemDto patch) {
@@ -49,8 +59,8 @@ public class ItemController {
                                           @RequestParam(name = "from", required = false) Integer from,
                                           @RequestParam(name = "size", required = false) Integer size,
                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
-        log.info("Getting all items for user id={}, time={}", sharerId, time);
-        return itemService.getItemsByUserId(sharerId, time);
+        log.info("Getting all items for user id={}, from={}, size={}, time={}", sharerId, from, size, time);
+        return itemService.getItemsByUserId(sharerId, from, size, time);
     }
 
     @GetMapping("/search")
@@ -58,8 +68,8 @@ public class ItemController {
                                 @RequestParam(name = "text") String searchText,
                                 @RequestParam(name = "from", required = false) Integer from,
                                 @RequestParam(name = "size", required = false) Integer size) {
-        log.info("Searching items by text={}", searchText);
-        return itemService.search(searchText);
+        log.info("Searching items by text={}, from={}, size={}", searchText, from, size);
+        return itemService.search(searchText, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
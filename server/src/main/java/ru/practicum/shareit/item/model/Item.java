@@ -1,6 +1,5 @@
 package ru.practicum.shareit.item.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
@@ -15,12 +14,12 @@ import javax.persistence.*;
 @Entity
 @Table(name = "items", schema = "public")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,10 +32,31 @@ public class Item {
     @Column(nullable = false)
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ItemRequest request;
+
+    @Version
+    private Long version;
+
+    public Item(Long id, String name, String description, @NonNull Boolean available, User user, ItemRequest request) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.user = user;
+        this.request = request;
+    }
+
+    /**
+     * Detached copy to patch, so an instance shared through the item cache is never changed in place.
+     */
+    public Item copy() {
+        Item copy = new Item(id, name, description, available, user, request);
+        copy.setVersion(version);
+        return copy;
+    }
 }
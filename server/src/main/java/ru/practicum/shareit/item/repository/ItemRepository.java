@@ -1,24 +1,64 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByUserId(Long userId);
+    /**
+     * Associations are lazy, so the cached item is loaded with everything callers read after the session is gone.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ITEMS, unless = "#result == null")
+    @EntityGraph(attributePaths = {"user", "request", "request.requestor"})
+    Optional<Item> findById(Long id);
 
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#p0.id", condition = "#p0.id != null", beforeInvocation = true)
+    <S extends Item> S save(S item);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    /**
+     * Locks, in id order, the items of {@code ownerId} that the given bookings are for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.user.id = ?2 " +
+            "and i.id in (select b.item.id from Booking b where b.id in ?1) order by i.id")
+    List<Item> findAllByBookingIdsForUpdate(Collection<Long> bookingIds, Long ownerId);
+
+    @EntityGraph(attributePaths = {"user", "request"})
+    List<Item> findAllByUserIdOrderByIdAsc(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user", "request"})
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            " and i.available = true")
-    List<Item> search(String query);
+            "where i.available = true " +
+            " and (lower(i.name) like concat('%', lower(?1), '%') " +
+            " or lower(i.description) like concat('%', lower(?1), '%')) " +
+            "order by i.id")
+    List<Item> search(String query, Pageable pageable);
 
 
+    @EntityGraph(attributePaths = "request")
     @Query("select i from Item i where i.request.id = ?1")
     List<Item> findAllItemsForRequest(Long requestId);
+
+    @Query("select i from Item i join fetch i.request left join fetch i.user where i.request.id in ?1")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports items from NDJSON, one item per line.
+ * Lines are validated and inserted in chunks, each chunk in its own transaction, so a bad line
+ * is reported and skipped without rolling back the rest of the import.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public ItemImportResultDto importItems(InputStream input, long owner) {
+        User user = userRepository.findById(owner).orElseThrow(()
+                -> {
+            throw new UserNotFoundException(owner); });
+        ItemImportResultDto result = new ItemImportResultDto(0, new ArrayList<>());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ImportRow row = parse(lineNumber, line, result);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, user, result);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, user, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    private ImportRow parse(long lineNumber, String line, ItemImportResultDto result) {
+        ItemDto itemDto;
+        try {
+            itemDto = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            result.getErrors().add(new ItemImportErrorDto(lineNumber, "Некорректный JSON"));
+            return null;
+        }
+        if (itemDto.getAvailable() == null || itemDto.getName() == null || itemDto.getName().isEmpty()
+                || itemDto.getDescription() == null) {
+            result.getErrors().add(new ItemImportErrorDto(lineNumber,
+                    "Поля available, name и description не могут быть пустыми"));
+            return null;
+        }
+        return new ImportRow(lineNumber, itemDto);
+    }
+
+    private void importChunk(List<ImportRow> rows, User owner, ItemImportResultDto result) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemRequest> requests = findRequests(rows);
+        try {
+            transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(rows.stream()
+                    .map(row -> toItem(row, owner, requests))
+                    .collect(Collectors.toList())));
+            result.setImported(result.getImported() + rows.size());
+        } catch (DataAccessException e) {
+            // fall back to row by row to find out which lines the database rejected
+            entityManager.clear();
+            for (ImportRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            itemRepository.saveAll(List.of(toItem(row, owner, requests))));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowException) {
+                    result.getErrors().add(new ItemImportErrorDto(row.getLine(), "Не удалось сохранить предмет"));
+                }
+            }
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private Map<Long, ItemRequest> findRequests(List<ImportRow> rows) {
+        List<Long> requestIds = rows.stream()
+                .map(row -> row.getItem().getRequestId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private Item toItem(ImportRow row, User owner, Map<Long, ItemRequest> requests) {
+        Item item = ItemMapper.fromItemDto(row.getItem());
+        item.setUser(owner);
+        // same as ItemService.add: an unknown request id leaves the item without a request
+        if (row.getItem().getRequestId() != null) {
+            item.setRequest(requests.get(row.getItem().getRequestId()));
+        }
+        return item;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ImportRow {
+        private final long line;
+        private final ItemDto item;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
@@ -19,6 +21,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.PaginationValidator;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -44,7 +47,7 @@ public class ItemService {
         Item newItem = ItemMapper.fromItemDto(itemDto);
         newItem.setUser(userRepository.findById(owner).orElseThrow(()
                         -> {
-                    throw new UserNotFoundException("Пользователь с id " + owner + " не найден"); }));
+                    throw new UserNotFoundException(owner); }));
         setRequestForItem(newItem, itemDto.getRequestId());
         return ItemMapper.toItemDto(itemRepository.save(newItem));
     }
@@ -52,7 +55,8 @@ public class ItemService {
     public ItemDto update(ItemDto patch, Long itemId, long sharerId) {
         Item existsItem = itemRepository.findById(itemId)
                         .orElseThrow(() -> {
-                            throw new ItemNotFoundException("Сущность с id " + itemId + " не найдена"); });
+                            throw new ItemNotFoundException("Сущность с id " + itemId + " не найдена"); })
+                        .copy();
         if (existsItem.getUser().getId() != sharerId) {
             throw new NoRightsException("У пользователя с id=" + sharerId + " нет прав для редактирования этого товара");
         }
@@ -72,20 +76,20 @@ public class ItemService {
         return itemDto;
     }
 
-    public List<ItemDto> getItemsByUserId(Long sharerId, LocalDateTime time) {
-        return itemRepository.findAllByUserId(sharerId)
+    public List<ItemDto> getItemsByUserId(Long sharerId, Integer from, Integer size, LocalDateTime time) {
+        List<ItemDto> items = itemRepository.findAllByUserIdOrderByIdAsc(sharerId, createPage(from, size))
                 .stream()
                 .map(ItemMapper::toItemDto)
-                .peek(itemDto -> setBookingsForItem(itemDto, time))
-                .sorted(Comparator.comparing(ItemDto::getId))
                 .collect(Collectors.toList());
+        setBookingsForItems(items, time);
+        return items;
     }
 
-    public List<ItemDto> search(String searchText) {
+    public List<ItemDto> search(String searchText, Integer from, Integer size) {
         if (searchText.isBlank()) {
             return new ArrayList<>();
         }
-        return itemRepository.search(searchText.toLowerCase())
+        return itemRepository.search(searchText.toLowerCase(), createPage(from, size))
                 .stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
     }
 
@@ -97,7 +101,7 @@ public class ItemService {
                                     throw new ItemNotFoundException("Сущность с id " + itemId + " не найдена"); }),
                 userRepository.findById(sharerId).orElseThrow(()
                         -> {
-                    throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); }),
+                    throw new UserNotFoundException(sharerId); }),
                 creationDto.getCreated());
         validateComment(comment);
         return CommentMapper.toCommentDto(commentRepository.save(comment));
@@ -134,25 +138,46 @@ public class ItemService {
     }
 
     private void setBookingsForItem(ItemDto itemDto, LocalDateTime time) {
+        itemDto.setLastBooking(bookingRepository
+                .findFirstByItemIdAndStartLessThanEqualOrderByEndDesc(itemDto.getId(), time)
+                .map(BookingMapper::toBookingItemDto)
+                .orElse(null));
+        itemDto.setNextBooking(bookingRepository
+                .findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAsc(itemDto.getId(), time,
+                        BookingStatus.REJECTED.name())
+                .map(BookingMapper::toBookingItemDto)
+                .orElse(null));
+    }
 
-        Optional<Booking> optLastBooking = bookingRepository
-                .findLastBookingForItem(time, itemDto.getId()).stream()
-                .findFirst();
-        if (optLastBooking.isPresent()) {
-            itemDto.setLastBooking(BookingMapper.toBookingItemDto(optLastBooking.get()));
-        } else {
-            itemDto.setLastBooking(null);
+    private void setBookingsForItems(List<ItemDto> items, LocalDateTime time) {
+        if (items.isEmpty()) {
+            return;
         }
+        Set<Long> itemIds = items.stream().map(ItemDto::getId).collect(Collectors.toSet());
 
-        Optional<Booking> optNextBooking = bookingRepository
-                .findNextBookingForItem(time, itemDto.getId()).stream()
-                .filter(booking -> !booking.getStatus().equals(BookingStatus.REJECTED.name()))
-                .findFirst();
-        if (optNextBooking.isPresent()) {
-            itemDto.setNextBooking(BookingMapper.toBookingItemDto(optNextBooking.get()));
-        } else {
-            itemDto.setNextBooking(null);
+        Map<Long, Booking> lastBookings = groupFirstByItem(bookingRepository.findLastBookingsForItems(time, itemIds));
+        Map<Long, Booking> nextBookings = groupFirstByItem(bookingRepository.findNextBookingsForItems(time, itemIds));
+
+        for (ItemDto itemDto : items) {
+            Booking lastBooking = lastBookings.get(itemDto.getId());
+            Booking nextBooking = nextBookings.get(itemDto.getId());
+            itemDto.setLastBooking(lastBooking == null ? null : BookingMapper.toBookingItemDto(lastBooking));
+            itemDto.setNextBooking(nextBooking == null ? null : BookingMapper.toBookingItemDto(nextBooking));
+        }
+    }
+
+    private Map<Long, Booking> groupFirstByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking,
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
+    private Pageable createPage(Integer from, Integer size) {
+        if (from == null || size == null) {
+            return Pageable.unpaged();
         }
+        PaginationValidator.validatePagination(from, size);
+        return PageRequest.of(from / size, size);
     }
 
     private void setRequestForItem(Item item, Long requestId) {
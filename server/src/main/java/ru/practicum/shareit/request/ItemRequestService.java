@@ -7,16 +7,19 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.exceptions.MissingRequiredFieldsException;
 import ru.practicum.shareit.exceptions.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
 import ru.practicum.shareit.validation.PaginationValidator;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +31,8 @@ public class ItemRequestService {
 
     private final ItemRepository itemRepository;
 
+    private final UserExistenceGuard userGuard;
+
 
     public ItemRequestDto add(ItemRequestCreationDto dto, Long sharerId) {
         ItemRequest request = ItemRequestMapper.fromCreationDto(dto);
@@ -37,14 +42,13 @@ public class ItemRequestService {
 
     public List<ItemRequestDto> getForUser(Long sharerId) {
 
-        userRepository.findById(sharerId).orElseThrow(()
-                -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); });
+        userGuard.requireExists(sharerId);
 
-        return requestRepository.findByRequestorId(sharerId).stream()
+        List<ItemRequestDto> requests = requestRepository.findByRequestorId(sharerId).stream()
                 .map(ItemRequestMapper::toDto)
-                .peek(this::setItemsForRequest)
                 .collect(Collectors.toList());
+        setItemsForRequests(requests);
+        return requests;
     }
 
     public List<ItemRequestDto> getAllFromOtherUsers(Long sharerId, Integer from, Integer size) {
@@ -53,19 +57,16 @@ public class ItemRequestService {
         }
         PaginationValidator.validatePagination(from, size);
         Pageable pageable = PageRequest.of(from, size);
-        userRepository.findById(sharerId).orElseThrow(()
-                -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); });
-        return requestRepository.findAllFromOtherUsers(sharerId, pageable).stream()
+        userGuard.requireExists(sharerId);
+        List<ItemRequestDto> requests = requestRepository.findAllFromOtherUsers(sharerId, pageable).stream()
                 .map(ItemRequestMapper::toDto)
-                .peek(this::setItemsForRequest)
                 .collect(Collectors.toList());
+        setItemsForRequests(requests);
+        return requests;
     }
 
     public ItemRequestDto getRequest(Long sharerId, Long requestId) {
-        userRepository.findById(sharerId).orElseThrow(()
-                -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); });
+        userGuard.requireExists(sharerId);
         ItemRequestDto itemRequestDto = ItemRequestMapper.toDto(requestRepository.findById(requestId).orElseThrow(()
                 -> {
             throw new RequestNotFoundException("Запрос с id " + requestId + " не найден"); }));
@@ -82,7 +83,7 @@ public class ItemRequestService {
 
         request.setRequestor(userRepository.findById(sharerId).orElseThrow(()
                 -> {
-            throw new UserNotFoundException("Пользователь с id " + sharerId + " не найден"); }));
+            throw new UserNotFoundException(sharerId); }));
     }
 
     private void setItemsForRequest(ItemRequestDto request) {
@@ -94,4 +95,18 @@ public class ItemRequestService {
         request.setItems(items.stream().map(ItemMapper::toRequestDto).collect(Collectors.toList()));
     }
 
+    private void setItemsForRequests(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+        Map<Long, List<ItemForRequestDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .map(ItemMapper::toRequestDto)
+                .collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
+
+        for (ItemRequestDto request : requests) {
+            request.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+        }
+    }
+
 }
@@ -27,4 +27,11 @@ public class User {
     @Email
     @Column(name = "email", unique = true, nullable = false)
     private String email;
+
+    /**
+     * Detached copy to patch, so an instance shared through the user cache is never changed in place.
+     */
+    public User copy() {
+        return new User(id, name, email);
+    }
 }
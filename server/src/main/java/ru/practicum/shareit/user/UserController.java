@@ -1,12 +1,19 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 
@@ -20,6 +27,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto addUser(@RequestBody @Valid UserDto user) {
@@ -40,9 +48,23 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
-        log.info("Getting all users");
-        return userService.getAll();
+    public List<UserDto> getAll(@RequestParam(name = "from", required = false) Integer from,
+                                @RequestParam(name = "size", required = false) Integer size) {
+        log.info("Getting all users from={}, size={}", from, size);
+        return userService.getAll(from, size);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Streaming all users");
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                userService.streamAll(user -> writeUser(generator, user));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -51,4 +73,12 @@ public class UserController {
         userService.deleteById(id);
     }
 
+    private void writeUser(JsonGenerator generator, UserDto user) {
+        try {
+            generator.writeObject(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
@@ -1,10 +1,47 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    Optional<User> findById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#p0.id", condition = "#p0.id != null", beforeInvocation = true)
+    <S extends User> S save(S user);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#p0", beforeInvocation = true),
+            @CacheEvict(cacheNames = CacheConfig.ITEMS, allEntries = true, beforeInvocation = true)
+    })
+    void deleteById(Long id);
+
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    /**
+     * DTO projection, so rows never enter the persistence context and heap stays flat.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User u order by u.id")
+    Stream<UserDto> streamAllBy();
 }
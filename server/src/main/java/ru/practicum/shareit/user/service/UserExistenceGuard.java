@@ -0,0 +1,44 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Validates the X-Sharer-User-Id of the current request without loading the user.
+ * A user already checked during this request, or present in the user cache, costs no query;
+ * otherwise an index-only exists probe is made. The cache itself is filled by the cached findById.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class UserExistenceGuard {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    private final Set<Long> checkedUserIds = new HashSet<>();
+
+    public void requireExists(Long userId) {
+        if (checkedUserIds.contains(userId)) {
+            return;
+        }
+        if (!isCached(userId) && !userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        checkedUserIds.add(userId);
+    }
+
+    private boolean isCached(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        return cache != null && cache.get(userId) != null;
+    }
+}
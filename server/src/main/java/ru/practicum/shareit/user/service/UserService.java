@@ -1,7 +1,11 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.exceptions.EmailAlreadyExistsException;
 import ru.practicum.shareit.exceptions.exceptions.InvalidEmailException;
 import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
@@ -9,9 +13,12 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.PaginationValidator;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,21 +41,45 @@ public class UserService {
     public UserDto getById(Long id) {
         return UserMapper.toUserDto(userRepository.findById(id)
                 .orElseThrow(() -> {
-                    throw new UserNotFoundException("Пользователь с id " + id + " не найден"); }));
+                    throw new UserNotFoundException(id); }));
     }
 
     public UserDto update(Long id, UserDto patch)  {
-        User existsUser = userRepository.findById(id).get();
+        User existsUser = userRepository.findById(id)
+                .orElseThrow(() -> {
+                    throw new UserNotFoundException(id); })
+                .copy();
         customApplyPatchToUser(patch, existsUser);
-        return UserMapper.toUserDto(userRepository.save(existsUser));
+        try {
+            return UserMapper.toUserDto(userRepository.save(existsUser));
+        } catch (DataIntegrityViolationException e) {
+            // UQ_USER_EMAIL catches a concurrent update that slipped past validate
+            throw new EmailAlreadyExistsException("пользователь с таким email уже сущестует");
+        }
     }
 
     public void deleteById(Long id) {
         userRepository.deleteById(id);
     }
 
-    public List<UserDto> getAll() {
-        return userRepository.findAll().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
+    public List<UserDto> getAll(Integer from, Integer size) {
+        if (from == null || size == null) {
+            return userRepository.findAll().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
+        }
+        PaginationValidator.validatePagination(from, size);
+        return userRepository.findAll(PageRequest.of(from / size, size, Sort.by("id"))).stream()
+                .map(UserMapper::toUserDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Passes every user to the consumer while reading them through a forward-only cursor.
+     * The transaction must stay open until the stream is drained.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAllBy()) {
+            users.forEach(consumer);
+        }
     }
 
     private void customApplyPatchToUser(UserDto patch, User targetUser) {
@@ -66,15 +97,8 @@ public class UserService {
             throw new InvalidEmailException("email должен соответствовать формату example@example.com");
         }
 
-        for (User existsUser : userRepository.findAll()) {
-
-            if (existsUser.getId().equals(id)) {
-                continue;
-            }
-
-            if (existsUser.getEmail().equals(user.getEmail())) {
-                throw new EmailAlreadyExistsException("пользователь с таким email уже сущестует");
-            }
+        if (userRepository.existsByEmailAndIdNot(user.getEmail(), id)) {
+            throw new EmailAlreadyExistsException("пользователь с таким email уже сущестует");
         }
     }
 }
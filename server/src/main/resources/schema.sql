@@ -1,5 +1,7 @@
 drop table if exists users, items, comments, requests, bookings;
 
+drop sequence if exists items_seq;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
@@ -14,24 +16,45 @@ CREATE TABLE IF NOT EXISTS requests (
     created TIMESTAMP WITHOUT TIME ZONE
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR NOT NULL,
     description VARCHAR NOT NULL,
     available BOOLEAN NOT NULL,
     user_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
-    request_id BIGINT REFERENCES requests (id) ON DELETE CASCADE
+    request_id BIGINT REFERENCES requests (id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_user ON items (user_id);
+
 CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date TIMESTAMP WITHOUT TIME ZONE,
     item_id BIGINT REFERENCES items (id) ON DELETE CASCADE,
     booker_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
-    status VARCHAR NOT NULL
+    owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
+    status VARCHAR NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status ON bookings (booker_id, status, end_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_end ON bookings (owner_id, end_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status ON bookings (owner_id, status, end_date DESC);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     text VARCHAR NOT NULL,
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.exceptions.exceptions.BookingOverlapException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit;LOCK_TIMEOUT=10000")
+public class BookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService service;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "concurrency-owner@ya.ru"));
+        booker = userRepository.save(new User(null, "booker", "concurrency-booker@ya.ru"));
+        item = itemRepository.save(new Item(null, "a", "b", true, owner, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(owner.getId());
+        userRepository.deleteById(booker.getId());
+    }
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsTest() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(saveWaitingBooking(start.plusMinutes(i), start.plusHours(2)).getId());
+        }
+
+        List<Boolean> results = approveConcurrently(bookingIds);
+
+        Assertions.assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        Assertions.assertEquals(1, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED.name()))
+                .count());
+    }
+
+    @Test
+    void concurrentApprovalsOfDisjointBookingsTest() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(saveWaitingBooking(start.plusHours(i), start.plusHours(i).plusMinutes(30)).getId());
+        }
+
+        List<Boolean> results = approveConcurrently(bookingIds);
+
+        Assertions.assertTrue(results.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    void batchWaitsForConcurrentDecisionAndSeesItTest() throws Exception {
+        Booking booking = saveWaitingBooking(start, start.plusHours(1));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch bookingLocked = new CountDownLatch(1);
+        CountDownLatch commitDecision = new CountDownLatch(1);
+        try {
+            // another request has locked the booking and approved it, but has not committed yet
+            Future<?> decision = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                bookingRepository.findAllWithItemByIdForUpdate(List.of(booking.getId()));
+                bookingRepository.updateStatus(booking.getId(), BookingStatus.APPROVED.name(), booking.getVersion());
+                bookingLocked.countDown();
+                await(commitDecision);
+            }));
+            bookingLocked.await(10, TimeUnit.SECONDS);
+            Future<List<BookingDecisionDto>> batch = executor.submit(() ->
+                    service.updateAll(List.of(booking.getId()), owner.getId(), "true"));
+            awaitBlockedSession();
+
+            commitDecision.countDown();
+            decision.get(10, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(List.of(new BookingDecisionDto(booking.getId(), null,
+                    "Бронирование уже подтверждено")), batch.get(10, TimeUnit.SECONDS));
+            Booking stored = bookingRepository.findById(booking.getId()).get();
+            Assertions.assertEquals(BookingStatus.APPROVED.name(), stored.getStatus());
+            Assertions.assertEquals(booking.getVersion() + 1, stored.getVersion());
+        } finally {
+            commitDecision.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.sessions where blocker_id is not null", Integer.class) == 0) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "batch did not wait for the booking lock");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Booking saveWaitingBooking(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        return bookingRepository.save(new Booking(null, bookingStart, bookingEnd, item, booker,
+                BookingStatus.WAITING.name()));
+    }
+
+    private List<Boolean> approveConcurrently(List<Long> bookingIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Long bookingId : bookingIds) {
+                Callable<Boolean> approval = () -> {
+                    startLatch.await();
+                    try {
+                        service.update(bookingId, owner.getId(), "true");
+                        return true;
+                    } catch (BookingOverlapException e) {
+                        return false;
+                    }
+                };
+                futures.add(executor.submit(approval));
+            }
+            startLatch.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -12,12 +12,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exceptions.ErrorHandler;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -69,6 +76,23 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void addByMissingSharerMarksSharerTest() throws Exception {
+        Mockito.when(service.add(Mockito.any(), Mockito.eq(2L))).thenThrow(new UserNotFoundException(2L));
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        adviceMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 2L)
+                        .content(mapper.writeValueAsString(creationDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(UserNotFoundException.MISSING_USER_HEADER, "2"));
+    }
+
     @Test
     void updateTest() throws Exception {
         controller.updateBooking(1L, 1L, BookingStatus.APPROVED.name());
@@ -86,6 +110,24 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void updateBatchTest() throws Exception {
+        Mockito.when(service.updateAll(List.of(1L, 2L), 1L, "true")).thenReturn(List.of(
+                new BookingDecisionDto(1L, BookingStatus.APPROVED.name(), null),
+                new BookingDecisionDto(2L, null, "Бронь с id 2 не найдена")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name())))
+                .andExpect(jsonPath("$[1].error", is("Бронь с id 2 не найдена")));
+    }
+
     @Test
     void getBookingByIdTest() throws Exception {
         controller.getBookingById(1L, 1L);
@@ -104,7 +146,7 @@ public class BookingControllerTest {
 
     @Test
     void getAllByUserId() throws Exception {
-        controller.getAllByUserId(1L, "state", 0, 20, currentTime);
+        controller.getAllByUserId(1L, "state", 0, 20, currentTime, null);
 
         Mockito.verify(service, Mockito.times(1))
                 .getAllByState(Mockito.anyLong(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any());
@@ -120,7 +162,7 @@ public class BookingControllerTest {
 
     @Test
     void getAllForOwner() throws Exception {
-        controller.getAllForOwner(1L, "state",0, 20, currentTime);
+        controller.getAllForOwner(1L, "state",0, 20, currentTime, null);
 
         Mockito.verify(service, Mockito.times(1))
                 .getAllByOwnerAndState(Mockito.anyLong(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any());
@@ -133,4 +175,51 @@ public class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getAllByUserIdByCursorTest() throws Exception {
+        Mockito.when(service.getAllByCursor(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                        Mockito.any()))
+                .thenReturn(List.of(dto));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", new BookingCursor(end, 2L).encode())
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(end, dto.getId()).encode()));
+    }
+
+    @Test
+    void getWaitingForOwnerReturnsNextCursorTest() throws Exception {
+        Mockito.when(service.getAllByOwnerAndState(1L, "WAITING", 0, 1, null)).thenReturn(List.of(dto));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "WAITING")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(end, dto.getId()).encode()));
+    }
+
+    @Test
+    void lastCursorPageHasNoNextCursorTest() throws Exception {
+        Mockito.when(service.getAllByCursor(Mockito.anyLong(), Mockito.eq("CURRENT"), Mockito.any(), Mockito.eq(2),
+                        Mockito.any()))
+                .thenReturn(List.of(dto));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "CURRENT")
+                        .param("cursor", new BookingCursor(end, 2L).encode())
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
 }
@@ -3,6 +3,9 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 
@@ -24,4 +27,17 @@ public class BookingMapperTest {
         Assertions.assertEquals(creationDto.getStart(), booking.getStart());
         Assertions.assertEquals(creationDto.getEnd(), booking.getEnd());
     }
+
+    @Test
+    void toBookingDtoKeepsOnlyShortItemAndBookerTest() {
+        User user = new User(1L, "a", "b@ya.ru");
+        Item item = new Item(2L, "a", "b", true, user, null);
+        Booking booking = new Booking(3L, LocalDateTime.now(), LocalDateTime.now(), item, user, "WAITING");
+
+        BookingDto dto = BookingMapper.toBookingDto(booking);
+
+        Assertions.assertEquals(2L, dto.getItem().getId());
+        Assertions.assertEquals("a", dto.getItem().getName());
+        Assertions.assertEquals(1L, dto.getBooker().getId());
+    }
 }
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingQueryCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime time = LocalDateTime.now();
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "query-owner@ya.ru"));
+        booker = userRepository.save(new User(null, "booker", "query-booker@ya.ru"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void ownerBookingsQueryCountDoesNotGrowWithPageTest() {
+        addItemsWithBookings(1);
+        long singleBookingStatements = countStatements(() ->
+                bookingService.getAllByOwnerAndState(owner.getId(), "ALL", 0, 20, time));
+
+        addItemsWithBookings(9);
+        long tenBookingsStatements = countStatements(() ->
+                bookingService.getAllByOwnerAndState(owner.getId(), "ALL", 0, 20, time));
+
+        Assertions.assertEquals(singleBookingStatements, tenBookingsStatements);
+    }
+
+    @Test
+    void bookerBookingsQueryCountDoesNotGrowWithPageTest() {
+        addItemsWithBookings(1);
+        long singleBookingStatements = countStatements(() ->
+                bookingService.getAllByState(booker.getId(), "ALL", 0, 20, time));
+
+        addItemsWithBookings(9);
+        long tenBookingsStatements = countStatements(() ->
+                bookingService.getAllByState(booker.getId(), "ALL", 0, 20, time));
+
+        Assertions.assertEquals(singleBookingStatements, tenBookingsStatements);
+    }
+
+    @Test
+    void ownerItemsQueryCountDoesNotGrowWithPageTest() {
+        addItemsWithBookings(1);
+        long singleItemStatements = countStatements(() ->
+                itemService.getItemsByUserId(owner.getId(), 0, 20, time));
+
+        addItemsWithBookings(9);
+        long tenItemsStatements = countStatements(() ->
+                itemService.getItemsByUserId(owner.getId(), 0, 20, time));
+
+        Assertions.assertEquals(singleItemStatements, tenItemsStatements);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void everyStateIsOneStatementPerPageTest(BookingState state) {
+        addItemsWithBookings(10);
+
+        for (BookingScope scope : BookingScope.values()) {
+            Long userId = scope == BookingScope.OWNER ? owner.getId() : booker.getId();
+            long statements = countStatements(() ->
+                    bookingRepository.findAllByState(scope, userId, state, time, null, PageRequest.of(0, 5)));
+
+            Assertions.assertEquals(1, statements, scope + " " + state);
+        }
+    }
+
+    @Test
+    void ownerBookingsPageContainsItemAndBookerTest() {
+        addItemsWithBookings(3);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        List<BookingDto> bookings = bookingService.getAllByOwnerAndState(owner.getId(), "ALL", 0, 20, time);
+
+        Assertions.assertEquals(3, bookings.size());
+        for (BookingDto booking : bookings) {
+            Assertions.assertNotNull(booking.getItem().getName());
+            Assertions.assertEquals(booker.getId(), booking.getBooker().getId());
+        }
+    }
+
+    @Test
+    void ownerItemsContainLastBookingTest() {
+        addItemsWithBookings(2);
+
+        List<ItemDto> items = itemService.getItemsByUserId(owner.getId(), 0, 20, time);
+
+        Assertions.assertEquals(2, items.size());
+        for (ItemDto item : items) {
+            Assertions.assertEquals(booker.getId(), item.getLastBooking().getBookerId());
+        }
+    }
+
+    private void addItemsWithBookings(int count) {
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(new Item(null, "item " + i, "description", true, owner, null));
+            bookingRepository.save(new Booking(null, time.minusDays(2), time.minusDays(1), item, booker,
+                    BookingStatus.APPROVED.name()));
+        }
+    }
+
+    private long countStatements(Supplier<List<?>> call) {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        call.get();
+
+        return statistics.getPrepareStatementCount();
+    }
+}
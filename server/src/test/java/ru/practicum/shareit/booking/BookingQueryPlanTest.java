@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Explains the SQL Hibernate generates for findAllByState, not a hand-written copy of it.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.BookingQueryPlanTest$SqlRecorder")
+public class BookingQueryPlanTest {
+
+    private final LocalDateTime time = LocalDateTime.now();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    static Stream<Arguments> indexedStates() {
+        return Stream.of(
+                Arguments.of(BookingScope.BOOKER, BookingState.PAST, "IDX_BOOKINGS_BOOKER_END"),
+                Arguments.of(BookingScope.BOOKER, BookingState.CURRENT, "IDX_BOOKINGS_BOOKER_END"),
+                Arguments.of(BookingScope.BOOKER, BookingState.WAITING, "IDX_BOOKINGS_BOOKER_STATUS"),
+                Arguments.of(BookingScope.BOOKER, BookingState.REJECTED, "IDX_BOOKINGS_BOOKER_STATUS"),
+                Arguments.of(BookingScope.OWNER, BookingState.PAST, "IDX_BOOKINGS_OWNER_END"),
+                Arguments.of(BookingScope.OWNER, BookingState.CURRENT, "IDX_BOOKINGS_OWNER_END"),
+                Arguments.of(BookingScope.OWNER, BookingState.WAITING, "IDX_BOOKINGS_OWNER_STATUS"),
+                Arguments.of(BookingScope.OWNER, BookingState.REJECTED, "IDX_BOOKINGS_OWNER_STATUS"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("indexedStates")
+    void stateQueryUsesIndexTest(BookingScope scope, BookingState state, String index) {
+        String plan = explain(scope, state);
+
+        Assertions.assertTrue(plan.contains(index), plan);
+    }
+
+    /**
+     * ALL and FUTURE constrain only the scope column, so any index leading with it is as good as another.
+     */
+    @ParameterizedTest
+    @EnumSource(value = BookingState.class, names = {"ALL", "FUTURE"})
+    void scopeOnlyQueryDoesNotScanBookingsTest(BookingState state) {
+        for (BookingScope scope : BookingScope.values()) {
+            String plan = explain(scope, state);
+
+            Assertions.assertFalse(plan.contains("PUBLIC.BOOKINGS.TABLESCAN"), plan);
+        }
+    }
+
+    private String explain(BookingScope scope, BookingState state) {
+        SqlRecorder.STATEMENTS.clear();
+        bookingRepository.findAllByState(scope, 1L, state, time, null, null);
+        String sql = SqlRecorder.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().contains("from bookings"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        Query explain = entityManager.createNativeQuery("EXPLAIN " + sql);
+        List<Object> parameters = parameters(state, sql.chars().filter(c -> c == '?').count());
+        for (int i = 0; i < parameters.size(); i++) {
+            explain.setParameter(i + 1, parameters.get(i));
+        }
+        return explain.getSingleResult().toString().toUpperCase();
+    }
+
+    private List<Object> parameters(BookingState state, long count) {
+        Stream<Object> stateParameters;
+        if (state == BookingState.WAITING || state == BookingState.REJECTED) {
+            // the status is bound unless Hibernate inlines the literal
+            stateParameters = Stream.of(state.name());
+        } else {
+            stateParameters = Stream.generate(() -> time);
+        }
+        return Stream.concat(Stream.of((Object) 1L), stateParameters)
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -2,9 +2,14 @@ package ru.practicum.shareit.booking;
 
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -12,6 +17,9 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -67,67 +75,102 @@ public class BookingRepositoryTest {
         bookingRepository.delete(nextBooking);
     }
 
-    @Test
-    void getAllByStatusTest() {
-        List<Booking> bookingList = bookingRepository.findAllByStatus(BookingStatus.APPROVED.name(),
-                user.getId(),
-                PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
-        Assertions.assertEquals(1, bookingList.size());
-        Assertions.assertEquals(lastBooking, bookingList.get(0));
+    static Stream<Arguments> states() {
+        return Stream.of(BookingScope.values()).flatMap(scope -> Stream.of(
+                Arguments.of(scope, BookingState.ALL, List.of("next", "last")),
+                Arguments.of(scope, BookingState.CURRENT, List.of()),
+                Arguments.of(scope, BookingState.PAST, List.of("last")),
+                Arguments.of(scope, BookingState.FUTURE, List.of("next")),
+                Arguments.of(scope, BookingState.WAITING, List.of("next")),
+                Arguments.of(scope, BookingState.REJECTED, List.of())));
     }
 
-    @Test
-    void findAllForOwnerByStatusTest() {
-        List<Booking> bookingList = bookingRepository.findAllForOwnerByStatus(BookingStatus.APPROVED.name(),
-                user.getId(),
-                PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
-        Assertions.assertEquals(1, bookingList.size());
-        Assertions.assertEquals(lastBooking, bookingList.get(0));
+    @ParameterizedTest
+    @MethodSource("states")
+    void findAllByStateTest(BookingScope scope, BookingState state, List<String> expected) {
+        List<BookingDto> bookingList = bookingRepository.findAllByState(scope, user.getId(), state, currentTime,
+                null, PageRequest.of(0, 20));
+
+        Assertions.assertEquals(expected.stream().map(this::toDto).collect(Collectors.toList()), bookingList);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void findAllByStateSkipsOtherUsersBookingsTest(BookingState state) {
+        User other = userRepository.save(new User(null, "c", "c@ya.ru"));
+
+        Assertions.assertTrue(bookingRepository.findAllByState(BookingScope.BOOKER, other.getId(), state,
+                currentTime, null, PageRequest.of(0, 20)).isEmpty());
+        Assertions.assertTrue(bookingRepository.findAllByState(BookingScope.OWNER, other.getId(), state,
+                currentTime, null, PageRequest.of(0, 20)).isEmpty());
     }
 
     @Test
-    void findAllOrderByEndTest() {
-        List<Booking> bookingList = bookingRepository.findAllOrderByEnd(user.getId(), PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
+    void findAllByStateWithoutPageTest() {
+        List<BookingDto> bookingList = bookingRepository.findAllByState(BookingScope.BOOKER, user.getId(),
+                BookingState.ALL, currentTime, null, null);
+
         Assertions.assertEquals(2, bookingList.size());
-        Assertions.assertEquals(nextBooking, bookingList.get(0));
-        Assertions.assertEquals(lastBooking, bookingList.get(1));
     }
 
     @Test
-    void findCurrentBookingsTest() {
-        List<Booking> bookingList = bookingRepository.findAllByEndIsAfterAndStartIsBefore(currentTime,
-                currentTime, PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
-        Assertions.assertEquals(0, bookingList.size());
+    void findAllByStatePagesTest() {
+        List<BookingDto> bookingList = bookingRepository.findAllByState(BookingScope.OWNER, user.getId(),
+                BookingState.ALL, currentTime, null, PageRequest.of(1, 1));
+
+        Assertions.assertEquals(List.of(BookingMapper.toBookingDto(lastBooking)), bookingList);
     }
 
     @Test
-    void findAllByCurrentStateForOwnerTest() {
-        List<Booking> bookingList = bookingRepository.findAllByCurrentStateFowOwner(currentTime,
-                user.getId(), PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
-        Assertions.assertEquals(0, bookingList.size());
+    void findAllAfterCursorTest() {
+        List<BookingDto> bookingList = bookingRepository.findAllByState(BookingScope.BOOKER, user.getId(),
+                BookingState.ALL, null, new BookingCursor(nextBooking.getEnd(), nextBooking.getId()),
+                PageRequest.of(0, 20));
+        Assertions.assertEquals(1, bookingList.size());
+        Assertions.assertEquals(BookingMapper.toBookingDto(lastBooking), bookingList.get(0));
     }
 
     @Test
-    void findAllByPastStateTest() {
-        List<Booking> bookingList = bookingRepository.findAllByEndIsBefore(currentTime,
+    void findAllByOwnerAfterCursorTest() {
+        List<BookingDto> bookingList = bookingRepository.findAllByState(BookingScope.OWNER, user.getId(),
+                BookingState.ALL, null, new BookingCursor(lastBooking.getEnd(), lastBooking.getId()),
                 PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
-        Assertions.assertEquals(1, bookingList.size());
-        Assertions.assertEquals(lastBooking, bookingList.get(0));
+        Assertions.assertEquals(0, bookingList.size());
     }
 
     @Test
-    void findAllByFutureStateTest() {
-        List<Booking> bookingList = bookingRepository.findAllByStartIsAfter(currentTime,
+    void findWaitingAfterCursorTest() {
+        Booking olderWaiting = bookingRepository.save(new Booking(null, lastStart.minusSeconds(2),
+                lastStart.minusSeconds(1), item, user, BookingStatus.WAITING.name()));
+
+        List<BookingDto> bookingList = bookingRepository.findAllByState(BookingScope.BOOKER, user.getId(),
+                BookingState.WAITING, currentTime, new BookingCursor(nextBooking.getEnd(), nextBooking.getId()),
                 PageRequest.of(0, 20));
-        Assertions.assertNotNull(bookingList);
-        Assertions.assertEquals(1, bookingList.size());
-        Assertions.assertEquals(nextBooking, bookingList.get(0));
+
+        Assertions.assertEquals(List.of(BookingMapper.toBookingDto(olderWaiting)), bookingList);
+    }
+
+    @Test
+    void findCurrentByOwnerAfterCursorTest() {
+        Booking longer = bookingRepository.save(new Booking(null, currentTime.minusHours(1),
+                currentTime.plusHours(2), item, user, BookingStatus.APPROVED.name()));
+        Booking shorter = bookingRepository.save(new Booking(null, currentTime.minusHours(1),
+                currentTime.plusHours(1), item, user, BookingStatus.APPROVED.name()));
+
+        List<BookingDto> firstPage = bookingRepository.findAllByState(BookingScope.OWNER, user.getId(),
+                BookingState.CURRENT, currentTime, null, PageRequest.of(0, 1));
+        List<BookingDto> secondPage = bookingRepository.findAllByState(BookingScope.OWNER, user.getId(),
+                BookingState.CURRENT, currentTime, new BookingCursor(longer.getEnd(), longer.getId()),
+                PageRequest.of(0, 1));
+
+        Assertions.assertEquals(List.of(BookingMapper.toBookingDto(longer)), firstPage);
+        Assertions.assertEquals(List.of(BookingMapper.toBookingDto(shorter)), secondPage);
+    }
+
+    @Test
+    void ownerIdIsCopiedFromItemOnSaveTest() {
+        Assertions.assertEquals(user.getId(), lastBooking.getOwnerId());
+        Assertions.assertEquals(user.getId(), nextBooking.getOwnerId());
     }
 
     @Test
@@ -141,17 +184,61 @@ public class BookingRepositoryTest {
 
     @Test
     void findLastBookingForItemTest() {
-        List<Booking> bookingList = bookingRepository.findLastBookingForItem(currentTime, item.getId());
+        Optional<Booking> booking = bookingRepository.findFirstByItemIdAndStartLessThanEqualOrderByEndDesc(
+                item.getId(), currentTime);
+        Assertions.assertTrue(booking.isPresent());
+        Assertions.assertEquals(lastBooking, booking.get());
+    }
+
+    @Test
+    void findLastBookingsForItemsTest() {
+        List<Booking> bookingList = bookingRepository.findLastBookingsForItems(currentTime, List.of(item.getId()));
         Assertions.assertNotNull(bookingList);
         Assertions.assertEquals(1, bookingList.size());
         Assertions.assertEquals(lastBooking, bookingList.get(0));
     }
 
     @Test
-    void findNextBookingForItemTest() {
-        List<Booking> bookingList = bookingRepository.findNextBookingForItem(currentTime, item.getId());
+    void findNextBookingsForItemsTest() {
+        List<Booking> bookingList = bookingRepository.findNextBookingsForItems(currentTime, List.of(item.getId()));
         Assertions.assertNotNull(bookingList);
         Assertions.assertEquals(1, bookingList.size());
         Assertions.assertEquals(nextBooking, bookingList.get(0));
     }
+
+    @Test
+    void findNextBookingForItemTest() {
+        Optional<Booking> booking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAsc(
+                item.getId(), currentTime, BookingStatus.REJECTED.name());
+        Assertions.assertTrue(booking.isPresent());
+        Assertions.assertEquals(nextBooking, booking.get());
+    }
+
+    @Test
+    void findNextBookingForItemSkipsRejectedTest() {
+        nextBooking.setStatus(BookingStatus.REJECTED.name());
+        bookingRepository.save(nextBooking);
+
+        Optional<Booking> booking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAsc(
+                item.getId(), currentTime, BookingStatus.REJECTED.name());
+        Assertions.assertTrue(booking.isEmpty());
+    }
+
+    @Test
+    void updateStatusComparesVersionTest() {
+        Long version = nextBooking.getVersion();
+
+        Assertions.assertEquals(1, bookingRepository.updateStatus(nextBooking.getId(),
+                BookingStatus.APPROVED.name(), version));
+        Assertions.assertEquals(0, bookingRepository.updateStatus(nextBooking.getId(),
+                BookingStatus.REJECTED.name(), version));
+
+        Booking booking = bookingRepository.findById(nextBooking.getId()).orElseThrow();
+        Assertions.assertEquals(BookingStatus.APPROVED.name(), booking.getStatus());
+        Assertions.assertEquals(version + 1, booking.getVersion());
+    }
+
+    private BookingDto toDto(String booking) {
+        return BookingMapper.toBookingDto(booking.equals("last") ? lastBooking : nextBooking);
+    }
 }
@@ -2,19 +2,33 @@ package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
+import ru.practicum.shareit.booking.dto.UserShortDto;
 import ru.practicum.shareit.exceptions.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 public class BookingServiceTest {
 
@@ -27,7 +41,11 @@ public class BookingServiceTest {
 
     private final LocalDateTime currenttime = LocalDateTime.now();
 
-    private final BookingService service = new BookingService(bookingRepository, itemRepository, userRepository);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    private final BookingService service = new BookingService(bookingRepository, itemRepository, userRepository,
+            new UserExistenceGuard(userRepository, new ConcurrentMapCacheManager()),
+            new TransactionTemplate(transactionManager));
     private User user = new User(1L, "a", "b@ya.ru");
     private Item item = new Item(1L, "a","b", true, user, null);
     private BookingCreationDto bookingCreationDto = new BookingCreationDto(
@@ -41,7 +59,7 @@ public class BookingServiceTest {
             end, item, user, BookingStatus.WAITING.name());
 
     private BookingDto bookingDto = new BookingDto(1L, start,
-            end, item, user, BookingStatus.WAITING.name());
+            end, new ItemShortDto(1L, "a"), new UserShortDto(1L), BookingStatus.WAITING.name());
 
     @Test
     void addTest() {
@@ -63,7 +81,8 @@ public class BookingServiceTest {
         final UserNotFoundException exception =  Assertions.assertThrows(
                 UserNotFoundException.class, () -> service.add(bookingCreationDto, 2L));
 
-        Assertions.assertEquals(exception.getMessage(), "Пользователь с id 1 не найден");
+        Assertions.assertEquals(exception.getMessage(), "Пользователь с id 2 не найден");
+        Assertions.assertEquals(2L, exception.getUserId());
     }
 
     @Test
@@ -128,10 +147,25 @@ public class BookingServiceTest {
     }
 
 
+    @Test
+    void addOverlappingBookingTest() {
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(item));
+        Mockito.when(bookingRepository.existsApprovedOverlap(Mockito.anyLong(), Mockito.any(), Mockito.any()))
+                .thenReturn(true);
+
+        final BookingOverlapException exception =  Assertions.assertThrows(
+                BookingOverlapException.class, () -> service.add(bookingCreationDto, 2L));
+
+        Assertions.assertEquals("Предмет уже забронирован на это время", exception.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     void updateTest() {
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
-        Mockito.when(bookingRepository.save(Mockito.any())).thenReturn(booking);
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(1);
 
         BookingDto dto = service.update(1L, 1L, "REJECTED");
 
@@ -141,7 +175,8 @@ public class BookingServiceTest {
     @Test
     void updateWrongBookingTest() {
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
-        Mockito.when(bookingRepository.save(Mockito.any())).thenReturn(booking);
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(1);
 
         final BookingNotFoundException exception =  Assertions.assertThrows(
                 BookingNotFoundException.class, () -> service.update(1L, 1L, "REJECTED"));
@@ -152,7 +187,8 @@ public class BookingServiceTest {
     @Test
     void updateByWrongUserTest() {
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
-        Mockito.when(bookingRepository.save(Mockito.any())).thenReturn(booking);
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(1);
 
         final NoRightsException exception =  Assertions.assertThrows(
                 NoRightsException.class, () -> service.update(1L, 123L, "REJECTED"));
@@ -165,17 +201,140 @@ public class BookingServiceTest {
     void updateAlreadyApprovedBookingTest() {
         booking.setStatus(BookingStatus.APPROVED.name());
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
-        Mockito.when(bookingRepository.save(Mockito.any())).thenReturn(booking);
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(1);
         final IncorrectActionException exception =  Assertions.assertThrows(
                 IncorrectActionException.class, () -> service.update(1L, 1L, "true"));
 
         Assertions.assertEquals("Бронирование уже подтверждено", exception.getMessage());
     }
 
+    @Test
+    void updateApproveTest() {
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(1);
+
+        BookingDto dto = service.update(1L, 1L, "true");
+
+        Assertions.assertEquals(BookingStatus.APPROVED.name(), dto.getStatus());
+        Mockito.verify(itemRepository, Mockito.times(1)).findByIdForUpdate(1L);
+    }
+
+    @Test
+    void updateApproveOverlappingBookingTest() {
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
+        Mockito.when(bookingRepository.existsApprovedOverlap(1L, start, end)).thenReturn(true);
+
+        final BookingOverlapException exception =  Assertions.assertThrows(
+                BookingOverlapException.class, () -> service.update(1L, 1L, "true"));
+
+        Assertions.assertEquals("Предмет уже забронирован на это время", exception.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never())
+                .updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void updateApproveConstraintViolationTest() {
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("excl_bookings_item_approved_period"));
+
+        final BookingOverlapException exception =  Assertions.assertThrows(
+                BookingOverlapException.class, () -> service.update(1L, 1L, "true"));
+
+        Assertions.assertEquals("Предмет уже забронирован на это время", exception.getMessage());
+    }
+
+    @Test
+    void updateRetriesAfterConcurrentChangeTest() {
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(0, 1);
+
+        BookingDto dto = service.update(1L, 1L, "false");
+
+        Assertions.assertEquals(BookingStatus.REJECTED.name(), dto.getStatus());
+        Mockito.verify(bookingRepository, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    void updateGivesUpAfterRetriesTest() {
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
+        Mockito.when(bookingRepository.updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(0);
+
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.update(1L, 1L, "false"));
+
+        Mockito.verify(bookingRepository, Mockito.times(3))
+                .updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any());
+        // every attempt is committed before the next one starts
+        Mockito.verify(transactionManager, Mockito.times(3)).getTransaction(Mockito.any());
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(Mockito.any());
+    }
+
+    @Test
+    void updateAllTest() {
+        Booking foreignBooking = new Booking(2L, start, end, new Item(2L, "c", "d", true,
+                new User(3L, "c", "c@ya.ru"), null), user, BookingStatus.WAITING.name());
+        Booking overlappingBooking = new Booking(3L, start, end, item, user, BookingStatus.WAITING.name());
+        Mockito.when(bookingRepository.findAllWithItemByIdForUpdate(Mockito.anyCollection()))
+                .thenReturn(List.of(booking, foreignBooking, overlappingBooking));
+        Mockito.when(bookingRepository.updateStatusForAll(List.of(1L), BookingStatus.APPROVED.name()))
+                .thenReturn(1);
+
+        List<BookingDecisionDto> results = service.updateAll(List.of(1L, 2L, 3L, 4L), 1L, "true");
+
+        Assertions.assertEquals(List.of(
+                new BookingDecisionDto(1L, BookingStatus.APPROVED.name(), null),
+                new BookingDecisionDto(2L, null, "У пользователя с id 1 нет прав для подтверждения бронирования"),
+                new BookingDecisionDto(3L, null, "Предмет уже забронирован на это время"),
+                new BookingDecisionDto(4L, null, "Бронь с id 4 не найдена")), results);
+        InOrder inOrder = Mockito.inOrder(itemRepository, bookingRepository);
+        inOrder.verify(itemRepository).findAllByBookingIdsForUpdate(Set.of(1L, 2L, 3L, 4L), 1L);
+        inOrder.verify(bookingRepository).findAllWithItemByIdForUpdate(Set.of(1L, 2L, 3L, 4L));
+        inOrder.verify(bookingRepository).updateStatusForAll(List.of(1L), BookingStatus.APPROVED.name());
+        Mockito.verify(bookingRepository, Mockito.never())
+                .updateStatus(Mockito.anyLong(), Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void rejectAllDoesNotLockItemsTest() {
+        Mockito.when(bookingRepository.findAllWithItemByIdForUpdate(Mockito.anyCollection())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.updateStatusForAll(List.of(1L), BookingStatus.REJECTED.name())).thenReturn(1);
+
+        List<BookingDecisionDto> results = service.updateAll(List.of(1L), 1L, "false");
+
+        Assertions.assertEquals(List.of(new BookingDecisionDto(1L, BookingStatus.REJECTED.name(), null)), results);
+        Mockito.verify(itemRepository, Mockito.never()).findAllByBookingIdsForUpdate(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void updateAllRowCountMismatchTest() {
+        Mockito.when(bookingRepository.findAllWithItemByIdForUpdate(Mockito.anyCollection())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.updateStatusForAll(List.of(1L), BookingStatus.REJECTED.name())).thenReturn(0);
+
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.updateAll(List.of(1L), 1L, "false"));
+    }
+
+    @Test
+    void updateAllTooManyIdsTest() {
+        List<Long> ids = LongStream.rangeClosed(1, BookingService.MAX_BATCH_SIZE + 1).boxed()
+                .collect(Collectors.toList());
+
+        final IncorrectRequestParamException exception = Assertions.assertThrows(
+                IncorrectRequestParamException.class, () -> service.updateAll(ids, 1L, "true"));
+
+        Assertions.assertEquals("Количество бронирований в запросе должно быть от 1 до 500", exception.getMessage());
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getAllByStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllOrderByEnd(Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByState(1L, "ALL", 0, 20, currenttime);
@@ -183,21 +342,35 @@ public class BookingServiceTest {
         Assertions.assertEquals(bookingDtos, new ArrayList<>());
     }
 
+    @Test
+    void getAllByStateZeroSizeTest() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+
+        final IncorrectRequestParamException exception = Assertions.assertThrows(
+                IncorrectRequestParamException.class, () -> service.getAllByState(1L, "ALL", 5, 0, currenttime));
+
+        Assertions.assertEquals("Некорректные параметры постраничного отображения", exception.getMessage());
+    }
+
     @Test
     void getPastByStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByEndIsBefore(Mockito.any(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByState(1L, "PAST", 0, 20, currenttime);
 
         Assertions.assertEquals(bookingDtos, new ArrayList<>());
+        Mockito.verify(bookingRepository).findAllByState(BookingScope.BOOKER, 1L, BookingState.PAST, currenttime,
+                null, PageRequest.of(0, 20));
     }
 
     @Test
     void getCurrentByStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByEndIsAfterAndStartIsBefore(Mockito.any(), Mockito.any(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByState(1L, "CURRENT", 0, 20, currenttime);
@@ -207,8 +380,9 @@ public class BookingServiceTest {
 
     @Test
     void getFutureByStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByStartIsAfter(Mockito.any(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByState(1L, "FUTURE", 0, 20, currenttime);
@@ -218,8 +392,9 @@ public class BookingServiceTest {
 
     @Test
     void getRejectedByStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByStatus(Mockito.any(), Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByState(1L, "REJECTED", null, null, currenttime);
@@ -229,8 +404,9 @@ public class BookingServiceTest {
 
     @Test
     void getByStateFowWrongUserTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
-        Mockito.when(bookingRepository.findAllByStatus(Mockito.any(), Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(false);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         final UserNotFoundException exception = Assertions.assertThrows(
@@ -241,8 +417,9 @@ public class BookingServiceTest {
 
     @Test
     void getByUnsupportedStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByStatus(Mockito.any(), Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         final UnsupportedStatusException exception = Assertions.assertThrows(
@@ -254,8 +431,9 @@ public class BookingServiceTest {
 
     @Test
     void getForOwnerByUnsupportedStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByStatus(Mockito.any(), Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         final UnsupportedStatusException exception = Assertions.assertThrows(
@@ -267,8 +445,9 @@ public class BookingServiceTest {
 
     @Test
     void getForOwnerByStateForWrongUserTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
-        Mockito.when(bookingRepository.findAllForOwnerByStatus(Mockito.any(), Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(false);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         final UserNotFoundException exception = Assertions.assertThrows(
@@ -280,8 +459,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllForOwnerByStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByOwner(Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByOwnerAndState(1L, "ALL", 0, 20, currenttime);
@@ -291,8 +471,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllForOwnerByCurrentStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByCurrentStateFowOwner(Mockito.any(), Mockito.anyLong(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByOwnerAndState(1L, "Current", 0, 20, currenttime);
@@ -302,19 +483,23 @@ public class BookingServiceTest {
 
     @Test
     void getAllForOwnerByFutureStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByStartIsAfter(Mockito.any(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByOwnerAndState(1L, "FUTURE", 0, 20, currenttime);
 
         Assertions.assertEquals(bookingDtos, new ArrayList<>());
+        Mockito.verify(bookingRepository).findAllByState(BookingScope.OWNER, 1L, BookingState.FUTURE, currenttime,
+                null, PageRequest.of(0, 20));
     }
 
     @Test
     void getAllForOwnerByPastStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllByEndIsBefore(Mockito.any(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByOwnerAndState(1L, "PAST", 0, 20, currenttime);
@@ -324,8 +509,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllForOwnerByRejectedStateTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(bookingRepository.findAllForOwnerByStatus(Mockito.any(), Mockito.any(), Mockito.any()))
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
                 .thenReturn(new ArrayList<>());
 
         List<BookingDto> bookingDtos = service.getAllByOwnerAndState(1L, "REJECTED", 0, 20, currenttime);
@@ -335,7 +521,7 @@ public class BookingServiceTest {
 
     @Test
     void getByIdTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
 
         BookingDto dto = service.getById(1L, 1L);
@@ -345,7 +531,7 @@ public class BookingServiceTest {
 
     @Test
     void getByIdForWrongUserTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(false);
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
 
         final UserNotFoundException exception =  Assertions.assertThrows(
@@ -356,7 +542,7 @@ public class BookingServiceTest {
 
     @Test
     void getByIdForNotExistsBookingTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final BookingNotFoundException exception =  Assertions.assertThrows(
@@ -367,7 +553,7 @@ public class BookingServiceTest {
 
     @Test
     void getByIdForNotFoundTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(booking));
 
         final BookingNotFoundException exception =  Assertions.assertThrows(
@@ -376,7 +562,68 @@ public class BookingServiceTest {
         Assertions.assertEquals(exception.getMessage(), "У пользователя нет активных бронирований");
     }
 
+    @Test
+    void getAllByCursorTest() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllByState(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                        Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(bookingDto));
+
+        List<BookingDto> bookingDtos = service.getAllByCursor(1L, "ALL", new BookingCursor(end, 2L).encode(), 10,
+                currenttime);
+
+        Assertions.assertEquals(List.of(bookingDto), bookingDtos);
+        Mockito.verify(bookingRepository).findAllByState(BookingScope.BOOKER, 1L, BookingState.ALL, currenttime,
+                new BookingCursor(end, 2L), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getCurrentByCursorTest() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+
+        service.getAllByCursor(1L, "current", new BookingCursor(end, 2L).encode(), 10, currenttime);
+
+        Mockito.verify(bookingRepository).findAllByState(BookingScope.BOOKER, 1L, BookingState.CURRENT, currenttime,
+                new BookingCursor(end, 2L), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getAllForOwnerByCursorTest() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
 
+        service.getAllForOwnerByCursor(1L, "all", new BookingCursor(end, 2L).encode(), 10, currenttime);
 
+        Mockito.verify(bookingRepository).findAllByState(BookingScope.OWNER, 1L, BookingState.ALL, currenttime,
+                new BookingCursor(end, 2L), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getWaitingForOwnerByCursorTest() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
 
+        service.getAllForOwnerByCursor(1L, "WAITING", new BookingCursor(end, 2L).encode(), 10, null);
+
+        Mockito.verify(bookingRepository).findAllByState(Mockito.eq(BookingScope.OWNER), Mockito.eq(1L),
+                Mockito.eq(BookingState.WAITING), Mockito.notNull(), Mockito.eq(new BookingCursor(end, 2L)),
+                Mockito.eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void getByCursorUnknownStateTest() {
+        final UnsupportedStatusException exception = Assertions.assertThrows(
+                UnsupportedStatusException.class, () ->
+                        service.getAllByCursor(1L, "unknown", new BookingCursor(end, 2L).encode(), 10, currenttime));
+
+        Assertions.assertEquals("Unknown state: UNKNOWN", exception.getMessage());
+    }
+
+    @Test
+    void getByMalformedCursorTest() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+
+        final IncorrectRequestParamException exception = Assertions.assertThrows(
+                IncorrectRequestParamException.class, () -> service.getAllByCursor(1L, "ALL", "???", 10, currenttime));
+
+        Assertions.assertEquals("Некорректный курсор постраничного отображения", exception.getMessage());
+    }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+@SpringBootTest
+public class PoolMetricsTest {
+
+    private static final String POOL = "shareit-pool";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void poolMetricsAreExportedTest() {
+        userRepository.count();
+
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", POOL).gauge());
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", POOL).gauge());
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.usage").tag("pool", POOL).timer());
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.timeout").tag("pool", POOL).counter());
+    }
+
+    @Test
+    void connectionAcquireTimeIsRecordedTest() {
+        userRepository.count();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", POOL).timer();
+        Assertions.assertNotNull(acquire);
+        long before = acquire.count();
+
+        for (int i = 0; i < 10; i++) {
+            userRepository.count();
+        }
+
+        Assertions.assertTrue(acquire.count() >= before + 10);
+    }
+}
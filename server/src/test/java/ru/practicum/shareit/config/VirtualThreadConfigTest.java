@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualThreadConfigTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(VirtualThreadConfig.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void virtualThreadExecutorDependsOnRuntimeTest() throws InterruptedException {
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadExecutor();
+
+        Assertions.assertEquals(Runtime.version().feature() >= 21, executor != null);
+        if (executor != null) {
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void missingVirtualThreadsAreReportedAsMisconfigurationTest() {
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadExecutor();
+
+        if (executor != null) {
+            executor.shutdown();
+            Assertions.assertTrue(appender.list.stream().noneMatch(event -> event.getLevel() == Level.WARN));
+        } else {
+            Assertions.assertTrue(appender.list.stream()
+                    .anyMatch(event -> event.getLevel() == Level.WARN
+                            && event.getFormattedMessage().contains(VirtualThreadConfig.ENABLED_PROPERTY)
+                            && event.getFormattedMessage().contains(System.getProperty("java.version"))),
+                    appender.list.toString());
+        }
+    }
+}
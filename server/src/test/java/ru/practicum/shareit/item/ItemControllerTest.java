@@ -16,6 +16,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
@@ -34,6 +37,9 @@ public class ItemControllerTest {
     @Mock
     private ItemService service;
 
+    @Mock
+    private ItemImportService importService;
+
     @InjectMocks
     private ItemController controller;
 
@@ -122,7 +128,8 @@ public class ItemControllerTest {
         List<ItemDto> dtoList = new ArrayList<>();
         dtoList.add(dto);
 
-        Mockito.when(service.getItemsByUserId(Mockito.anyLong(), Mockito.any())).thenReturn(dtoList);
+        Mockito.when(service.getItemsByUserId(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(dtoList);
 
         List<ItemDto> newDtoList = controller.getAllUsersItems(1L, null, null, currentTime);
 
@@ -143,7 +150,7 @@ public class ItemControllerTest {
         List<ItemDto> dtoList = new ArrayList<>();
         dtoList.add(dto);
 
-        Mockito.when(service.search(Mockito.any())).thenReturn(dtoList);
+        Mockito.when(service.search(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(dtoList);
 
         List<ItemDto> newDtoList = controller.search(1L, "a", null, null);
 
@@ -180,4 +187,20 @@ public class ItemControllerTest {
 
     }
 
+
+    @Test
+    void importItemsTest() throws Exception {
+        Mockito.when(importService.importItems(Mockito.any(), Mockito.eq(1L))).thenReturn(
+                new ItemImportResultDto(1, List.of(new ItemImportErrorDto(2, "Некорректный JSON"))));
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("{\"name\":\"a\",\"description\":\"b\",\"available\":true}\n{")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("application/x-ndjson")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)));
+    }
 }
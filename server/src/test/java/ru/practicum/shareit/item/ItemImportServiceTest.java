@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+public class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService service;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "import@ya.ru"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void importItemsReportsBadLinesTest() {
+        String ndjson = "{\"name\":\"drill\",\"description\":\"d\",\"available\":true}\n"
+                + "{\"name\":\"saw\"\n"
+                + "\n"
+                + "{\"name\":\"\",\"description\":\"d\",\"available\":true}\n"
+                + "{\"name\":\"hammer\",\"description\":\"h\",\"available\":false,\"requestId\":999}\n";
+
+        ItemImportResultDto result = service.importItems(toStream(ndjson), owner.getId());
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(List.of(
+                new ItemImportErrorDto(2, "Некорректный JSON"),
+                new ItemImportErrorDto(4, "Поля available, name и description не могут быть пустыми")),
+                result.getErrors());
+        List<Item> items = itemRepository.findAllByUserIdOrderByIdAsc(owner.getId(), Pageable.unpaged());
+        Assertions.assertEquals(List.of("drill", "hammer"),
+                items.stream().map(Item::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void importItemsInSeveralChunksTest() {
+        String ndjson = IntStream.range(0, 1234)
+                .mapToObj(i -> "{\"name\":\"item " + i + "\",\"description\":\"d\",\"available\":true}")
+                .collect(Collectors.joining("\n"));
+
+        ItemImportResultDto result = service.importItems(toStream(ndjson), owner.getId());
+
+        Assertions.assertEquals(1234, result.getImported());
+        Assertions.assertTrue(result.getErrors().isEmpty());
+        Assertions.assertEquals(1234,
+                itemRepository.findAllByUserIdOrderByIdAsc(owner.getId(), Pageable.unpaged()).size());
+    }
+
+    @Test
+    void importItemsForWrongUserTest() {
+        final UserNotFoundException exception = Assertions.assertThrows(UserNotFoundException.class,
+                () -> service.importItems(toStream(""), 9999L));
+
+        Assertions.assertEquals("Пользователь с id 9999 не найден", exception.getMessage());
+    }
+
+    private InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -28,7 +30,7 @@ public class ItemRepositoryTest {
     @BeforeEach
     void setUp() {
         user = new User(1L, "a", "b@ya.ru");
-        item = new Item(1L, "a", "b", true, null, null);
+        item = new Item(null, "a", "b", true, null, null);
         Long itemId = repository.save(item).getId();
         item.setId(itemId);
     }
@@ -45,7 +47,7 @@ public class ItemRepositoryTest {
 
     @Test
     void findAllByUserIdTest() {
-        List<Item> items = repository.findAllByUserId(1L);
+        List<Item> items = repository.findAllByUserIdOrderByIdAsc(1L, Pageable.unpaged());
         Assertions.assertNotNull(items);
         Assertions.assertEquals(0, items.size());
     }
@@ -57,10 +59,28 @@ public class ItemRepositoryTest {
         Assertions.assertEquals(0, items.size());
     }
 
+    @Test
+    void findAllByRequestIdInTest() {
+        List<Item> items = repository.findAllByRequestIdIn(List.of(1L, 2L));
+        Assertions.assertNotNull(items);
+        Assertions.assertEquals(0, items.size());
+    }
+
     @Test
     void searchTest() {
-        List<Item> items = repository.search("");
+        List<Item> items = repository.search("", PageRequest.of(0, 10));
         Assertions.assertNotNull(items);
         Assertions.assertEquals(items.get(0), item);
     }
+
+    @Test
+    void searchSkipsUnavailableItemsTest() {
+        Item unavailableItem = repository.save(new Item(null, "c", "B", false, null, null));
+
+        List<Item> items = repository.search("b", Pageable.unpaged());
+
+        Assertions.assertEquals(1, items.size());
+        Assertions.assertEquals(item, items.get(0));
+        repository.delete(unavailableItem);
+    }
 }
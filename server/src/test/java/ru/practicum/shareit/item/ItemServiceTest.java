@@ -8,6 +8,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -139,13 +141,26 @@ public class ItemServiceTest {
     @Test
     void updateTest() {
         Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(item));
-        Mockito.when(itemRepository.save(Mockito.any())).thenReturn(item);
+        Mockito.when(itemRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
         itemDto.setAvailable(false);
         ItemDto updatedItem = service.update(itemDto, 1L, 1);
 
         Assertions.assertEquals(updatedItem, itemDto);
     }
 
+    @Test
+    void updateDoesNotChangeCachedItemTest() {
+        Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(item));
+        Mockito.when(itemRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        itemDto.setName("new name");
+
+        service.update(itemDto, 1L, 1);
+
+        Assertions.assertEquals("a", item.getName());
+        Mockito.verify(itemRepository).save(Mockito.argThat(saved -> saved != item
+                && saved.getName().equals("new name")));
+    }
+
     @Test
     void updateNotFoundItemTest() {
         Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
@@ -182,15 +197,19 @@ public class ItemServiceTest {
                 user,
                 BookingStatus.APPROVED.name());
         Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(item));
-        Mockito.when(bookingRepository.findLastBookingForItem(Mockito.any(), Mockito.anyLong()))
-                .thenReturn(Collections.singletonList(lastBooking));
-        Mockito.when(bookingRepository.findNextBookingForItem(Mockito.any(), Mockito.anyLong()))
-                .thenReturn(Collections.singletonList(nextBooking));
+        Mockito.when(bookingRepository.findFirstByItemIdAndStartLessThanEqualOrderByEndDesc(Mockito.anyLong(),
+                        Mockito.any()))
+                .thenReturn(Optional.of(lastBooking));
+        Mockito.when(bookingRepository.findFirstByItemIdAndStartAfterAndStatusNotOrderByStartAsc(Mockito.anyLong(),
+                        Mockito.any(), Mockito.any()))
+                .thenReturn(Optional.of(nextBooking));
         Mockito.when(commentRepository.getAllCommentsForItem(Mockito.anyLong())).thenReturn(new ArrayList<>());
 
         ItemDto currentDto = service.getById(1L, 1L, currentTime);
 
         Assertions.assertEquals(item.getId(), currentDto.getId());
+        Assertions.assertEquals(lastBooking.getId(), currentDto.getLastBooking().getId());
+        Assertions.assertEquals(nextBooking.getId(), currentDto.getNextBooking().getId());
 
     }
 
@@ -207,22 +226,69 @@ public class ItemServiceTest {
 
     @Test
     void getItemsByUserIdTest() {
-        service.getItemsByUserId(1L, currentTime);
+        service.getItemsByUserId(1L, null, null, currentTime);
+
+        Mockito.verify(itemRepository, Mockito.times(1))
+                .findAllByUserIdOrderByIdAsc(Mockito.anyLong(), Mockito.eq(Pageable.unpaged()));
+    }
+
+    @Test
+    void getItemsByUserIdPageTest() {
+        service.getItemsByUserId(1L, 20, 10, currentTime);
+
+        Mockito.verify(itemRepository, Mockito.times(1))
+                .findAllByUserIdOrderByIdAsc(Mockito.anyLong(), Mockito.eq(PageRequest.of(2, 10)));
+    }
+
+    @Test
+    void getItemsByUserIdWrongPageTest() {
+        final IncorrectRequestParamException exception =  Assertions.assertThrows(
+                IncorrectRequestParamException.class, () -> service.getItemsByUserId(1L, 0, 0, currentTime));
 
-        Mockito.verify(itemRepository, Mockito.times(1)).findAllByUserId(Mockito.anyLong());
+        Assertions.assertEquals("Некорректные параметры постраничного отображения", exception.getMessage());
+    }
+
+    @Test
+    void getItemsByUserIdWithBookingsTest() {
+        Booking lastBooking = new Booking(1L,
+                lastStart,
+                lastEnd,
+                item,
+                user,
+                BookingStatus.APPROVED.name());
+        Booking nextBooking = new Booking(2L,
+                nextStart,
+                nextEnd,
+                item,
+                user,
+                BookingStatus.APPROVED.name());
+        Mockito.when(itemRepository.findAllByUserIdOrderByIdAsc(Mockito.anyLong(), Mockito.any()))
+                .thenReturn(List.of(item));
+        Mockito.when(bookingRepository.findLastBookingsForItems(Mockito.any(), Mockito.anyCollection()))
+                .thenReturn(List.of(lastBooking));
+        Mockito.when(bookingRepository.findNextBookingsForItems(Mockito.any(), Mockito.anyCollection()))
+                .thenReturn(List.of(nextBooking));
+
+        List<ItemDto> items = service.getItemsByUserId(1L, null, null, currentTime);
+
+        Assertions.assertEquals(1, items.size());
+        Assertions.assertEquals(lastBooking.getId(), items.get(0).getLastBooking().getId());
+        Assertions.assertEquals(nextBooking.getId(), items.get(0).getNextBooking().getId());
+        Mockito.verify(bookingRepository, Mockito.never())
+                .findFirstByItemIdAndStartLessThanEqualOrderByEndDesc(Mockito.anyLong(), Mockito.any());
     }
 
     @Test
     void searchTest() {
-        service.search("a");
+        service.search("a", 0, 10);
 
-        Mockito.verify(itemRepository, Mockito.times(1)).search(Mockito.any());
+        Mockito.verify(itemRepository, Mockito.times(1)).search(Mockito.any(), Mockito.eq(PageRequest.of(0, 10)));
     }
 
     @Test
     void emptySearchTest() {
 
-        List<ItemDto> dtoList = service.search("");
+        List<ItemDto> dtoList = service.search("", null, null);
 
         Assertions.assertEquals(dtoList, new ArrayList<>());
     }
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RequestQueryCountTest {
+
+    @Autowired
+    private ItemRequestService service;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User requestor;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        requestor = userRepository.save(new User(null, "requestor", "requestor@ya.ru"));
+        owner = userRepository.save(new User(null, "owner", "owner@ya.ru"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        userRepository.deleteById(owner.getId());
+        userRepository.deleteById(requestor.getId());
+    }
+
+    @Test
+    void getForUserQueryCountDoesNotGrowWithRequestsTest() {
+        addRequestsWithItems(1);
+        long singleRequestStatements = countStatementsForGetForUser();
+
+        addRequestsWithItems(9);
+        long tenRequestsStatements = countStatementsForGetForUser();
+
+        Assertions.assertEquals(singleRequestStatements, tenRequestsStatements);
+    }
+
+    @Test
+    void getForUserGroupsItemsByRequestTest() {
+        addRequestsWithItems(3);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        List<ItemRequestDto> requests = service.getForUser(requestor.getId());
+
+        Assertions.assertEquals(3, requests.size());
+        for (ItemRequestDto request : requests) {
+            Assertions.assertEquals(1, request.getItems().size());
+            Assertions.assertEquals(request.getId(), request.getItems().get(0).getRequestId());
+        }
+    }
+
+    private void addRequestsWithItems(int count) {
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = requestRepository.save(
+                    new ItemRequest(null, "request " + i, requestor, LocalDateTime.now()));
+            itemRepository.save(new Item(null, "item " + i, "description", true, owner, request));
+        }
+    }
+
+    private long countStatementsForGetForUser() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        service.getForUser(requestor.getId());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import ru.practicum.shareit.exceptions.exceptions.IncorrectRequestParamException;
 import ru.practicum.shareit.exceptions.exceptions.MissingRequiredFieldsException;
 import ru.practicum.shareit.exceptions.exceptions.RequestNotFoundException;
@@ -14,6 +15,7 @@ import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,7 +27,8 @@ public class RequestServiceTest {
     private ItemRequestRepository requestRepository = Mockito.mock(ItemRequestRepository.class);
     private UserRepository userRepository = Mockito.mock(UserRepository.class);
     private ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
-    private ItemRequestService service = new ItemRequestService(requestRepository, userRepository, itemRepository);
+    private ItemRequestService service = new ItemRequestService(requestRepository, userRepository, itemRepository,
+            new UserExistenceGuard(userRepository, new ConcurrentMapCacheManager()));
 
     private ItemRequestDto dto;
     private ItemRequestCreationDto creationDto;
@@ -92,11 +95,11 @@ public class RequestServiceTest {
 
     @Test
     void getForUserTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
 
         List<Item> items = new ArrayList<>();
         items.add(item);
-        Mockito.when(itemRepository.findAllItemsForRequest(Mockito.anyLong())).thenReturn(items);
+        Mockito.when(itemRepository.findAllByRequestIdIn(Mockito.anyCollection())).thenReturn(items);
         List<ItemRequest> requestList = new ArrayList<>();
         requestList.add(request);
 
@@ -105,13 +108,16 @@ public class RequestServiceTest {
         List<ItemRequestDto> dtoList = service.getForUser(1L);
 
         Assertions.assertEquals(dtoList.get(0).getId(), dto.getId());
+        Assertions.assertEquals(1, dtoList.get(0).getItems().size());
+        Mockito.verify(itemRepository, Mockito.times(1)).findAllByRequestIdIn(List.of(1L));
+        Mockito.verify(itemRepository, Mockito.never()).findAllItemsForRequest(Mockito.anyLong());
     }
 
     @Test
     void getForWrongUserTest() {
         List<Item> items = new ArrayList<>();
         items.add(item);
-        Mockito.when(itemRepository.findAllItemsForRequest(Mockito.anyLong())).thenReturn(items);
+        Mockito.when(itemRepository.findAllByRequestIdIn(Mockito.anyCollection())).thenReturn(items);
         List<ItemRequest> requestList = new ArrayList<>();
         requestList.add(request);
 
@@ -125,8 +131,8 @@ public class RequestServiceTest {
 
     @Test
     void getForUserEmptyItemsTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(itemRepository.findAllItemsForRequest(Mockito.anyLong())).thenReturn(new ArrayList<>());
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(itemRepository.findAllByRequestIdIn(Mockito.anyCollection())).thenReturn(new ArrayList<>());
         List<ItemRequest> requestList = new ArrayList<>();
         requestList.add(request);
 
@@ -135,6 +141,7 @@ public class RequestServiceTest {
         List<ItemRequestDto> dtoList = service.getForUser(1L);
 
         Assertions.assertEquals(dtoList.get(0).getId(), dto.getId());
+        Assertions.assertEquals(new ArrayList<>(), dtoList.get(0).getItems());
     }
 
     @Test
@@ -168,8 +175,8 @@ public class RequestServiceTest {
 
     @Test
     void getAllFromOtherUsersTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
-        Mockito.when(itemRepository.findAllItemsForRequest(Mockito.anyLong())).thenReturn(new ArrayList<>());
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(itemRepository.findAllByRequestIdIn(Mockito.anyCollection())).thenReturn(new ArrayList<>());
 
         service.getAllFromOtherUsers(1L, 0, 20);
 
@@ -179,7 +186,7 @@ public class RequestServiceTest {
 
     @Test
     void getRequestTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
         Mockito.when(requestRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(request));
         Mockito.when(itemRepository.findAllItemsForRequest(Mockito.anyLong())).thenReturn(new ArrayList<>());
 
@@ -191,7 +198,7 @@ public class RequestServiceTest {
 
     @Test
     void getNotFoundRequestTest() {
-        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
         Mockito.when(itemRepository.findAllItemsForRequest(Mockito.anyLong())).thenReturn(new ArrayList<>());
 
         final RequestNotFoundException exception =  Assertions.assertThrows(
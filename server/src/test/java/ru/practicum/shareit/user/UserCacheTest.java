@@ -0,0 +1,90 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
+
+import java.util.Objects;
+
+@SpringBootTest
+public class UserCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "a", "cache@ya.ru"));
+        cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS));
+        cache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (userRepository.existsById(user.getId())) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void findByIdPopulatesCacheTest() {
+        userRepository.findById(user.getId());
+
+        Assertions.assertNotNull(cache.get(user.getId()));
+    }
+
+    @Test
+    void userLoadedOnceIsNotProbedByLaterRequestsTest() {
+        userRepository.findById(user.getId());
+        UserRepository probe = Mockito.mock(UserRepository.class);
+
+        new UserExistenceGuard(probe, cacheManager).requireExists(user.getId());
+        new UserExistenceGuard(probe, cacheManager).requireExists(user.getId());
+
+        Mockito.verifyNoInteractions(probe);
+    }
+
+    @Test
+    void missingUserIsNotCachedTest() {
+        userRepository.findById(-1L);
+
+        Assertions.assertNull(cache.get(-1L));
+    }
+
+    @Test
+    void saveEvictsCachedUserTest() {
+        User cachedUser = userRepository.findById(user.getId()).orElseThrow();
+        cachedUser.setName("b");
+
+        userRepository.save(cachedUser);
+
+        Assertions.assertNull(cache.get(user.getId()));
+        Assertions.assertEquals("b", userRepository.findById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deleteEvictsCachedUserTest() {
+        userRepository.findById(user.getId());
+
+        userRepository.deleteById(user.getId());
+
+        Assertions.assertNull(cache.get(user.getId()));
+        Assertions.assertTrue(userRepository.findById(user.getId()).isEmpty());
+    }
+}
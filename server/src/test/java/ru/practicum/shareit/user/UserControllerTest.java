@@ -9,19 +9,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.exceptions.ErrorHandler;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +36,8 @@ public class UserControllerTest {
 
     @Mock
     private UserService userService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
     @InjectMocks
     private UserController userController;
 
@@ -93,9 +102,9 @@ public class UserControllerTest {
         users.add(userDto1);
         users.add(userDto2);
         users.add(userDto3);
-        Mockito.when(userService.getAll()).thenReturn(users);
+        Mockito.when(userService.getAll(null, null)).thenReturn(users);
 
-        List<UserDto> existsUsers = userController.getAll();
+        List<UserDto> existsUsers = userController.getAll(null, null);
 
         mvc.perform(get("/users")
                         .content(mapper.writeValueAsString(userDto))
@@ -139,5 +148,39 @@ public class UserControllerTest {
         Assertions.assertEquals(userDto, dto);
     }
 
+    @Test
+    public void getByIdNotFoundMarksMissingUserTest() throws Exception {
+        Mockito.when(userService.getById(99L)).thenThrow(new UserNotFoundException(99L));
+        MockMvc adviceMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        adviceMvc.perform(get("/users/{id}", 99L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(UserNotFoundException.MISSING_USER_HEADER, "99"))
+                .andExpect(jsonPath("$.error", is("Пользователь с id 99 не найден")));
+    }
+
+
 
+    @Test
+    public void streamAllTest() throws Exception {
+        List<UserDto> users = List.of(userDto, new UserDto(2L, "user2", "2"));
+        Mockito.doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            users.forEach(consumer);
+            return null;
+        }).when(userService).streamAll(Mockito.any());
+
+        MvcResult result = mvc.perform(get("/users/stream")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].name", is("user2")));
+    }
 }
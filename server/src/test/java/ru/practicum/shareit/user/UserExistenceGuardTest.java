@@ -0,0 +1,51 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
+
+public class UserExistenceGuardTest {
+
+    private final UserRepository repository = Mockito.mock(UserRepository.class);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final UserExistenceGuard guard = new UserExistenceGuard(repository, cacheManager);
+
+    private final User user = new User(1L, "a", "b@ya.ru");
+
+    @Test
+    public void requireExistsChecksOncePerRequestTest() {
+        Mockito.when(repository.existsById(1L)).thenReturn(true);
+
+        guard.requireExists(1L);
+        guard.requireExists(1L);
+
+        Mockito.verify(repository, Mockito.times(1)).existsById(1L);
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    public void requireExistsUsesUserCacheTest() {
+        cacheManager.getCache(CacheConfig.USERS).put(1L, user);
+
+        guard.requireExists(1L);
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void requireExistsForWrongUserTest() {
+        Mockito.when(repository.existsById(1L)).thenReturn(false);
+
+        final UserNotFoundException exception = Assertions.assertThrows(
+                UserNotFoundException.class, () -> guard.requireExists(1L));
+
+        Assertions.assertEquals("Пользователь с id 1 не найден", exception.getMessage());
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.USERS).get(1L));
+    }
+}
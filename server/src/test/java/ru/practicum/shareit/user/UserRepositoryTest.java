@@ -1,4 +1,36 @@
 package ru.practicum.shareit.user;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+@DataJpaTest
 public class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository repository;
+
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void setUp() {
+        first = entityManager.persist(new User(null, "a", "a@ya.ru"));
+        second = entityManager.persist(new User(null, "b", "b@ya.ru"));
+        entityManager.flush();
+    }
+
+    @Test
+    void existsByEmailAndIdNotTest() {
+        Assertions.assertTrue(repository.existsByEmailAndIdNot("b@ya.ru", first.getId()));
+        Assertions.assertFalse(repository.existsByEmailAndIdNot("b@ya.ru", second.getId()));
+        Assertions.assertFalse(repository.existsByEmailAndIdNot("c@ya.ru", first.getId()));
+    }
 }
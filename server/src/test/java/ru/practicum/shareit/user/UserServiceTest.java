@@ -5,6 +5,10 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exceptions.exceptions.EmailAlreadyExistsException;
 import ru.practicum.shareit.exceptions.exceptions.InvalidEmailException;
 import ru.practicum.shareit.exceptions.exceptions.UserNotFoundException;
@@ -15,6 +19,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class UserServiceTest {
 
@@ -87,19 +92,47 @@ public class UserServiceTest {
 
     @Test
     public void updateUserDuplicateEmailTest() {
-        User user1 = new User(2L, "patch", "c@ya.ru");
-        List<User> users = new ArrayList<>();
-        users.add(user);
-        users.add(user1);
         UserDto patch = new UserDto(1L, "patch", "c@ya.ru");
         Mockito.when(repository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
         Mockito.when(repository.save(Mockito.any())).thenReturn(user);
-        Mockito.when(repository.findAll()).thenReturn(users);
+        Mockito.when(repository.existsByEmailAndIdNot("c@ya.ru", 1L)).thenReturn(true);
+        final EmailAlreadyExistsException exception =  Assertions.assertThrows(
+                EmailAlreadyExistsException.class, () -> service.update(1L, patch));
+        Assertions.assertEquals("пользователь с таким email уже сущестует", exception.getMessage());
+        Mockito.verify(repository, Mockito.never()).findAll();
+    }
+
+    @Test
+    public void updateUserEmailConstraintViolationTest() {
+        UserDto patch = new UserDto(1L, "patch", "c@ya.ru");
+        Mockito.when(repository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(repository.save(Mockito.any())).thenThrow(new DataIntegrityViolationException("UQ_USER_EMAIL"));
         final EmailAlreadyExistsException exception =  Assertions.assertThrows(
                 EmailAlreadyExistsException.class, () -> service.update(1L, patch));
         Assertions.assertEquals("пользователь с таким email уже сущестует", exception.getMessage());
     }
 
+    @Test
+    public void failedUpdateDoesNotChangeCachedUserTest() {
+        UserDto patch = new UserDto(1L, "patch", "c@ya.ru");
+        Mockito.when(repository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(repository.save(Mockito.any())).thenThrow(new DataIntegrityViolationException("UQ_USER_EMAIL"));
+
+        Assertions.assertThrows(EmailAlreadyExistsException.class, () -> service.update(1L, patch));
+
+        Assertions.assertEquals(new User(1L, "a", "b@ya.ru"), user);
+    }
+
+    @Test
+    public void updateMissingUserTest() {
+        Mockito.when(repository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+
+        final UserNotFoundException exception = Assertions.assertThrows(
+                UserNotFoundException.class, () -> service.update(10L, userDto));
+
+        Assertions.assertEquals("Пользователь с id 10 не найден", exception.getMessage());
+    }
+
     @Test
     public void deleteByIdTest() {
         service.deleteById(1L);
@@ -112,7 +145,28 @@ public class UserServiceTest {
         users.add(user);
         Mockito.when(repository.findAll()).thenReturn(users);
 
-        List<UserDto> list = service.getAll();
+        List<UserDto> list = service.getAll(null, null);
+
+        Assertions.assertEquals(list, dtoList);
+    }
+
+    @Test
+    public void getAllPagedTest() {
+        Mockito.when(repository.findAll(PageRequest.of(1, 2, Sort.by("id"))))
+                .thenReturn(new PageImpl<>(List.of(user)));
+
+        List<UserDto> list = service.getAll(2, 2);
+
+        Assertions.assertEquals(list, dtoList);
+        Mockito.verify(repository, Mockito.never()).findAll();
+    }
+
+    @Test
+    public void streamAllTest() {
+        Mockito.when(repository.streamAllBy()).thenReturn(Stream.of(userDto));
+        List<UserDto> list = new ArrayList<>();
+
+        service.streamAll(list::add);
 
         Assertions.assertEquals(list, dtoList);
     }